@@ -0,0 +1,86 @@
+package app;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs searches for a pane on a background thread and hands the results back to the FX thread.
+ * <p>
+ * Requests are debounced, and each new request cancels the previous one whether it is still
+ * waiting or already running (searches should give up once their thread is interrupted). Only
+ * the result of the newest request is delivered, in a single {@link Platform#runLater}.
+ * <p>
+ * {@link #request} and {@link #requestNow} must be called on the FX thread.
+ */
+final class BackgroundSearch<T> {
+    private final ScheduledExecutorService executor;
+    private final long debounceMillis;
+    private final Consumer<? super T> onResult;
+    private Future<?> pending;
+    private long latestRequest;
+    private long deliveredRequest;
+
+    BackgroundSearch(String threadName, long debounceMillis, Consumer<? super T> onResult) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.debounceMillis = debounceMillis;
+        this.onResult = onResult;
+    }
+
+    /**
+     * Runs {@code search} once no newer request has arrived for the debounce delay.
+     */
+    void request(Callable<? extends T> search) {
+        schedule(search, debounceMillis);
+    }
+
+    /**
+     * Runs {@code search} without waiting, e.g. after the data itself has changed.
+     */
+    void requestNow(Callable<? extends T> search) {
+        schedule(search, 0);
+    }
+
+    /**
+     * Tells whether a requested search has yet to deliver its result.
+     */
+    boolean isRunning() {
+        return deliveredRequest != latestRequest;
+    }
+
+    private void schedule(Callable<? extends T> search, long delayMillis) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        long request = ++latestRequest;
+        pending = executor.schedule(() -> {
+            T result;
+            try {
+                result = search.call();
+            } catch (CancellationException | InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.out.println("Search failed: " + e.getMessage());
+                Platform.runLater(() -> deliveredRequest = request);
+                return;
+            }
+            // A newer request may have been made after this one finished but before it was cancelled.
+            Platform.runLater(() -> {
+                if (request == latestRequest) {
+                    deliveredRequest = request;
+                    onResult.accept(result);
+                }
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -9,6 +9,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.List;
+import java.util.UUID;
 
 import app.controllers.*;
 import app.models.*;
@@ -16,17 +17,12 @@ import app.models.*;
 
 public class CategoryManagementPane extends BorderPane {
     private final CategoryController categoryController;
-    private final TaskController taskController;
     private final ObservableList<Category> categoryList;
-    private final SummaryPane summaryPane;
-    private final ReminderManagementPane reminderPane;
 
-    public CategoryManagementPane(CategoryController categoryController, TaskController taskController,SummaryPane summaryPane,ReminderManagementPane reminderPane) {
+    public CategoryManagementPane(CategoryController categoryController, ChangeBus changeBus) {
         this.categoryController = categoryController;
-        this.taskController = taskController;
         this.categoryList = FXCollections.observableArrayList(categoryController.getCategories());
-        this.summaryPane = summaryPane;
-        this.reminderPane = reminderPane;
+        changeBus.subscribe(batch -> updateCategoryList(), ChangeBus.Topic.CATEGORIES);
         TableView<Category> categoryTable = createCategoryTable();
 
         Button addButton = new Button("+ Add Category");
@@ -75,8 +71,6 @@ public class CategoryManagementPane extends BorderPane {
                 showErrorAlert("Validation Error", "Category name cannot be empty.");
             } else if (!categoryController.addCategory(categoryName)) {
                 showErrorAlert("Duplicate Category", "Category already exists.");
-            } else {
-                updateCategoryList();
             }
         });
     }
@@ -97,10 +91,6 @@ public class CategoryManagementPane extends BorderPane {
                 showErrorAlert("Validation Error", "Category name cannot be empty.");
             } else if (!categoryController.modifyCategory(category.getName(), newCategoryName)) {
                 showErrorAlert("Error", "Failed to rename category.");
-            } else {
-                taskController.updateTasksWithModifiedCategory(category.getName(), newCategoryName);
-                updateCategoryList(); 
-                refreshTaskTable();   
             }
         });
     }
@@ -118,24 +108,15 @@ public class CategoryManagementPane extends BorderPane {
 
         confirmation.showAndWait().ifPresent(response -> {
         if (response == ButtonType.OK) {
-            List<String> deletedTaskIds = categoryController.deleteCategory(category.getName()); 
+            List<UUID> deletedTaskIds = categoryController.deleteCategory(category.getName()); 
             
             if (deletedTaskIds.isEmpty()) {
                 showErrorAlert("Error", "Failed to delete category.");
-            } else {
-                deletedTaskIds.forEach(taskId -> reminderPane.refreshAfterTaskDeletion(taskId));
-
-                updateCategoryList();
-                refreshTaskTable();
-                summaryPane.updateSummary();
             }
         }
     });
 }
 
-    public void refreshTaskTable() {
-    }
-
 
     private void showErrorAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
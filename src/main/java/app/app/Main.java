@@ -1,64 +1,178 @@
 package app;
 
+import app.controllers.ChangeBus;
+import app.controllers.ColumnarTaskStore;
+import app.controllers.IndexedTaskStore;
+import app.controllers.OffHeapTaskStore;
 import app.controllers.TaskController;
+import app.controllers.TaskStore;
 import app.controllers.CategoryController;
 import app.controllers.PriorityController;
 import app.controllers.ReminderController;
+import app.models.Category;
+import app.models.Priority;
+import app.models.Reminder;
+import app.models.Task;
+import app.utils.Journal;
+import app.utils.JsonUtils;
+import app.utils.SnapshotWriter;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import app.models.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Main extends Application {
-    private static final String TASKS_FILE = "medialab/tasks.json";
-    private static final String CATEGORIES_FILE = "medialab/categories.json";
-    private static final String PRIORITIES_FILE = "medialab/priorities.json";
-    private static final String REMINDERS_FILE = "medialab/reminders.json";
+    // Run with -Dmedialab.snapshot.format=binary to keep the data files in the compact binary format.
+    private static final String SNAPSHOT_EXTENSION =
+            "binary".equalsIgnoreCase(System.getProperty("medialab.snapshot.format")) ? JsonUtils.BINARY_EXTENSION : ".json";
+    private static final String TASKS_FILE = "medialab/tasks" + SNAPSHOT_EXTENSION;
+    private static final String CATEGORIES_FILE = "medialab/categories" + SNAPSHOT_EXTENSION;
+    private static final String PRIORITIES_FILE = "medialab/priorities" + SNAPSHOT_EXTENSION;
+    private static final String REMINDERS_FILE = "medialab/reminders" + SNAPSHOT_EXTENSION;
+    private static final String JOURNAL_FILE = "medialab/journal.log";
+    // Run with -Dmedialab.task.store=columnar or =offheap to pick another task store; the
+    // off-heap store maps its rows into -Dmedialab.task.store.file when that is set.
+    private static final String TASK_STORE = System.getProperty("medialab.task.store", "indexed");
+    private static final String TASK_STORE_FILE = System.getProperty("medialab.task.store.file");
 
     private TaskController taskController;
     private CategoryController categoryController;
     private PriorityController priorityController;
     private ReminderController reminderController;
+    private Journal journal;
+    private final SnapshotWriter snapshotWriter = new SnapshotWriter();
+    private volatile int replayedEntries;
+    private volatile boolean loaded;
+    private volatile boolean importedJson;
 
     @Override
     public void start(Stage primaryStage) {
-        reminderController = new ReminderController(null);
-        taskController = new TaskController(reminderController);
+        taskController = new TaskController(null, createTaskStore());
         categoryController = new CategoryController(taskController);
         priorityController = new PriorityController(taskController);
         reminderController = new ReminderController(taskController);
+        taskController.setReminderController(reminderController);
+
+        ProgressIndicator progressIndicator = new ProgressIndicator(0);
+        Label progressLabel = new Label("Loading tasks...");
+        VBox loadingPane = new VBox(10, progressIndicator, progressLabel);
+        loadingPane.setAlignment(Pos.CENTER);
+
+        Scene scene = new Scene(loadingPane, 1200, 800);
+        primaryStage.setTitle("MediaLab Assistant");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        loadData(progressIndicator).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.out.println("Failed to load data: " + error.getMessage());
+            }
+            loaded = true;
+            openJournal(replayedEntries > 0 || importedJson);
+            scene.setRoot(createMainView());
+
+            long delayedTasks = taskController.getDelayedTasks();
+
+            if (delayedTasks > 0) {
+                showPopup("You have " + delayedTasks + " overdue tasks.");
+            }
+        }));
+    }
 
-        categoryController.loadCategories(CATEGORIES_FILE);
-        priorityController.loadPriorities(PRIORITIES_FILE);
-        taskController.loadTasks(TASKS_FILE);
-        reminderController.loadReminders(REMINDERS_FILE);
-
-        taskController.updateOverdueTasks();
-        reminderController.cleanExpiredReminders();
-        System.out.println("Delayed Tasks Updated");
+    private static TaskStore createTaskStore() {
+        if ("columnar".equalsIgnoreCase(TASK_STORE)) {
+            return new ColumnarTaskStore();
+        }
+        if ("offheap".equalsIgnoreCase(TASK_STORE)) {
+            if (TASK_STORE_FILE == null) {
+                return new OffHeapTaskStore();
+            }
+            try {
+                return new OffHeapTaskStore(Path.of(TASK_STORE_FILE));
+            } catch (IOException e) {
+                System.out.println("Failed to open task store file, keeping tasks in native memory: " + e.getMessage());
+                return new OffHeapTaskStore();
+            }
+        }
+        return new IndexedTaskStore();
+    }
 
-        long delayedTasks = taskController.getTasks().stream()
-                .filter(task -> task.getStatus() == Task.Status.DELAYED)
-                .count();
+    /**
+     * Loads the four data files concurrently on virtual threads, then replays the journal.
+     * Overdue tasks and expired reminders are handled inside the load passes.
+     */
+    private CompletableFuture<Void> loadData(ProgressIndicator progressIndicator) {
+        int steps = 5;
+        AtomicInteger completedSteps = new AtomicInteger();
+        Runnable reportProgress = () -> {
+            double progress = (double) completedSteps.incrementAndGet() / steps;
+            Platform.runLater(() -> progressIndicator.setProgress(progress));
+        };
+
+        ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<Void> loads = CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> categoryController.loadCategories(fileToLoad(CATEGORIES_FILE)), loader).thenRun(reportProgress),
+                CompletableFuture.runAsync(() -> priorityController.loadPriorities(fileToLoad(PRIORITIES_FILE)), loader).thenRun(reportProgress),
+                CompletableFuture.runAsync(() -> taskController.loadTasks(fileToLoad(TASKS_FILE)), loader).thenRun(reportProgress),
+                CompletableFuture.runAsync(() -> reminderController.loadReminders(fileToLoad(REMINDERS_FILE)), loader).thenRun(reportProgress));
+
+        return loads.thenRunAsync(() -> {
+            journal = new Journal(JOURNAL_FILE);
+            try {
+                replayedEntries = journal.replay(this::applyJournalEntry);
+            } catch (IOException e) {
+                System.out.println("Failed to replay journal: " + e.getMessage());
+            }
+            if (replayedEntries > 0) {
+                taskController.updateOverdueTasks();
+                reminderController.cleanExpiredReminders();
+            }
+            reportProgress.run();
+        }, loader).whenComplete((ignored, error) -> loader.shutdown());
+    }
 
-        if (delayedTasks > 0) {
-            showPopup("You have " + delayedTasks + " overdue tasks.");
+    /**
+     * Falls back to importing the JSON file when no binary snapshot has been written yet.
+     * The first compaction then writes the binary snapshot.
+     */
+    private String fileToLoad(String snapshotFile) {
+        if (snapshotFile.endsWith(JsonUtils.BINARY_EXTENSION) && !Files.exists(Path.of(snapshotFile))) {
+            importedJson = true;
+            return snapshotFile.substring(0, snapshotFile.length() - JsonUtils.BINARY_EXTENSION.length()) + ".json";
         }
+        return snapshotFile;
+    }
 
+    private BorderPane createMainView() {
         BorderPane root = new BorderPane();
 
-        SummaryPane summaryPane = new SummaryPane(taskController, reminderController);
-        ReminderManagementPane reminderPane = new ReminderManagementPane(reminderController, taskController);
+        // Set once loading is done: the panes are built from the loaded data, not from its changes.
+        ChangeBus changeBus = new ChangeBus(Platform::runLater);
+        taskController.setChangeBus(changeBus);
+        categoryController.setChangeBus(changeBus);
+        priorityController.setChangeBus(changeBus);
+        reminderController.setChangeBus(changeBus);
+
+        SummaryPane summaryPane = new SummaryPane(taskController, reminderController, changeBus);
+        ReminderManagementPane reminderPane = new ReminderManagementPane(reminderController, taskController, changeBus);
     
-    MainContentPane taskPane = new MainContentPane(taskController, categoryController,priorityController, summaryPane,reminderController,reminderPane);
-    CategoryManagementPane categoryPane = new CategoryManagementPane(categoryController, taskController, summaryPane,reminderPane) {
-        @Override
-                public void refreshTaskTable() {
-                    taskPane.refreshTaskTable();
-                }
-    };
-    PriorityManagementPane priorityPane = new PriorityManagementPane(priorityController,taskPane);
+    MainContentPane taskPane = new MainContentPane(taskController, categoryController,priorityController, reminderController, changeBus);
+    CategoryManagementPane categoryPane = new CategoryManagementPane(categoryController, changeBus);
+    PriorityManagementPane priorityPane = new PriorityManagementPane(priorityController, changeBus);
     //ReminderManagementPane reminderPane = new ReminderManagementPane(reminderController,taskController);
 
     
@@ -72,13 +186,49 @@ public class Main extends Application {
     root.setTop(summaryPane);
     root.setLeft(sidebar);
     root.setCenter(taskPane);
-
-    Scene scene = new Scene(root, 1200, 800);
-    primaryStage.setTitle("MediaLab Assistant");
-    primaryStage.setScene(scene);
-    primaryStage.show();
+    return root;
 }
 
+    private void applyJournalEntry(Journal.Entry entry) throws IOException {
+        switch (entry.store()) {
+            case "task" -> taskController.applyJournalEntry(entry);
+            case "category" -> categoryController.applyJournalEntry(entry);
+            case "priority" -> priorityController.applyJournalEntry(entry);
+            case "reminder" -> reminderController.applyJournalEntry(entry);
+            default -> throw new IOException("Unknown journal store: " + entry.store());
+        }
+    }
+
+    private void openJournal(boolean compact) {
+        try {
+            journal.open();
+        } catch (IOException e) {
+            System.out.println("Failed to open journal, changes will only be saved on exit: " + e.getMessage());
+            journal = null;
+            return;
+        }
+        // Compaction asks for the snapshot from the committer thread; capture it on this one.
+        journal.setSnapshotter(() -> CompletableFuture.supplyAsync(this::writeSnapshot, Platform::runLater)
+                .thenCompose(saved -> saved));
+        taskController.setJournal(journal);
+        categoryController.setJournal(journal);
+        priorityController.setJournal(journal);
+        reminderController.setJournal(journal);
+        if (compact) {
+            journal.compact();
+        }
+    }
+
+    private CompletableFuture<Boolean> writeSnapshot() {
+        List<CompletableFuture<Boolean>> saves = List.of(
+                snapshotWriter.save(CATEGORIES_FILE, categoryController.getCategorySnapshot(), Category.class),
+                snapshotWriter.save(PRIORITIES_FILE, priorityController.getPrioritySnapshot(), Priority.class),
+                snapshotWriter.save(TASKS_FILE, taskController.getTaskSnapshot(), Task.class),
+                snapshotWriter.save(REMINDERS_FILE, reminderController.getReminderSnapshot(), Reminder.class));
+        return CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> saves.stream().allMatch(CompletableFuture::join));
+    }
+
     private void showPopup(String message) {
         Stage popupStage = new Stage();
         popupStage.setTitle("Notification");
@@ -91,10 +241,12 @@ public class Main extends Application {
 
     @Override
     public void stop() {
-        categoryController.saveCategories(CATEGORIES_FILE);
-        priorityController.savePriorities(PRIORITIES_FILE);
-        taskController.saveTasks(TASKS_FILE);
-        reminderController.saveReminders(REMINDERS_FILE);
+        if (journal != null) {
+            journal.close();
+        } else if (loaded) {
+            writeSnapshot();
+        }
+        snapshotWriter.close();
     }
 
     public static void main(String[] args) {
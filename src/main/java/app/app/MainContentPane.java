@@ -1,5 +1,7 @@
 package app;
 
+import app.controllers.Change;
+import app.controllers.ChangeBus;
 import app.controllers.TaskController;
 import app.controllers.CategoryController;
 import app.controllers.PriorityController;
@@ -8,10 +10,7 @@ import app.models.Category;
 import app.models.Priority;
 import app.models.Reminder;
 import app.models.Task;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -21,46 +20,78 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.time.LocalDate;
 
 public class MainContentPane extends BorderPane {
     private final TaskController taskController;
     private final CategoryController categoryController;
-    private final ObservableList<Task> taskList;
+    private final PagedTaskList taskList;
     private final PriorityController priorityController;
-    private final SummaryPane summaryPane;
     private final ReminderController reminderController;
-    private final ReminderManagementPane reminderManagementPane;
-    private final FilteredList<Task> filteredTasks;
+    // Filtering runs off the FX thread; taskList only ever holds the newest result.
+    private final BackgroundSearch<List<UUID>> taskSearch;
+    private final TextField titleSearchField = new TextField();
+    private final TextField categorySearchField = new TextField();
+    private final TextField prioritySearchField = new TextField();
+    private final TableView<Task> taskTable;
+    private final Map<TableColumn<Task, ?>, TaskController.SortKey> sortKeys = new HashMap<>();
+    // The table's sort order as of the last sort; every search result is sorted by it.
+    private List<SortColumn> sortOrder = List.of();
+    // The same order as a comparator, for moving a changed row into place; null when unsorted.
+    private Comparator<Task> rowOrder;
+
+    private record SortColumn(TaskController.SortKey key, boolean descending) {}
+    // Larger batches re-run the search instead of patching the table row by row.
+    private static final int MAX_ROW_UPDATES = 32;
+    // Cell values by task id, least recently drawn first; a few screens' worth is kept.
+    private static final int MAX_CACHED_ROWS = 1024;
+    private final Map<UUID, TaskRow> rows = new LinkedHashMap<>(MAX_CACHED_ROWS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, TaskRow> eldest) {
+            return size() > MAX_CACHED_ROWS;
+        }
+    };
+    private static final TaskRow DELETED_ROW = new TaskRow();
+    private static final String[] STATUS_STYLES = new String[Task.Status.values().length];
+
+    static {
+        Arrays.fill(STATUS_STYLES, "");
+        STATUS_STYLES[Task.Status.DELAYED.ordinal()] = "-fx-text-fill: red; -fx-font-weight: bold;";
+        STATUS_STYLES[Task.Status.COMPLETED.ordinal()] = "-fx-text-fill: green; -fx-font-weight: bold;";
+        STATUS_STYLES[Task.Status.POSTPONED.ordinal()] = "-fx-text-fill: blue; -fx-font-weight: bold;";
+        STATUS_STYLES[Task.Status.OPEN.ordinal()] = "-fx-text-fill: purple; -fx-font-weight: bold;";
+        STATUS_STYLES[Task.Status.IN_PROGRESS.ordinal()] = "-fx-text-fill: orange; -fx-font-weight: bold;";
+    }
     
     
-        public MainContentPane(TaskController taskController,CategoryController categoryController, PriorityController priorityController, SummaryPane summaryPane, ReminderController reminderController, ReminderManagementPane reminderManagementPane) {
+        public MainContentPane(TaskController taskController,CategoryController categoryController, PriorityController priorityController, ReminderController reminderController, ChangeBus changeBus) {
             this.taskController = taskController;
             this.categoryController = categoryController; 
-            this.summaryPane = summaryPane;
             this.reminderController = reminderController;
-            this.taskList = FXCollections.observableArrayList(taskController.getTasks());
+            this.taskList = new PagedTaskList(taskController);
+            taskList.setIds(taskController.getTaskIds());
             this.priorityController = priorityController;
-            this.reminderManagementPane = reminderManagementPane;
-            this.filteredTasks = new FilteredList<>(taskList, task -> true);
+            this.taskSearch = new BackgroundSearch<>("task-search", 150, taskList::setIds);
+            changeBus.subscribe(this::applyTaskChanges, ChangeBus.Topic.TASKS);
 
         Button addTaskButton = new Button("+ Add New Task");
-        addTaskButton.setOnAction(e -> showAddTaskDialog(summaryPane));
+        addTaskButton.setOnAction(e -> showAddTaskDialog());
 
-        TextField titleSearchField = new TextField();
         titleSearchField.setPromptText("Search by Title");
-
-        TextField categorySearchField = new TextField();
         categorySearchField.setPromptText("Search by Category");
-
-        TextField prioritySearchField = new TextField();
         prioritySearchField.setPromptText("Search by Priority");
 
-        titleSearchField.textProperty().addListener((obs, oldValue, newValue) -> filterTasks(titleSearchField, categorySearchField, prioritySearchField));
-        categorySearchField.textProperty().addListener((obs, oldValue, newValue) -> filterTasks(titleSearchField, categorySearchField, prioritySearchField));
-        prioritySearchField.textProperty().addListener((obs, oldValue, newValue) -> filterTasks(titleSearchField, categorySearchField, prioritySearchField));
+        titleSearchField.textProperty().addListener((obs, oldValue, newValue) -> taskSearch.request(tableSearch()));
+        categorySearchField.textProperty().addListener((obs, oldValue, newValue) -> taskSearch.request(tableSearch()));
+        prioritySearchField.textProperty().addListener((obs, oldValue, newValue) -> taskSearch.request(tableSearch()));
         
         
         //Button addCategoryButton = new Button("+ Add Category");
@@ -71,95 +102,109 @@ public class MainContentPane extends BorderPane {
         header.setAlignment(Pos.CENTER_LEFT);
         header.setPadding(new Insets(10));
         header.setStyle("-fx-background-color: #f9f9f9; -fx-border-color: #dddddd;");
-        TableView<Task> taskTable = createTaskTable();
+        this.taskTable = createTaskTable();
 
         setTop(header);
         setCenter(taskTable);
     }
 
 
-    private void filterTasks(TextField titleField, TextField categoryField, TextField priorityField) {
-        String titleFilter = titleField.getText().toLowerCase().trim();
-        String categoryFilter = categoryField.getText().toLowerCase().trim();
-        String priorityFilter = priorityField.getText().toLowerCase().trim();
+    // The search text is read here, on the FX thread; only the search itself runs in the background.
+    private Callable<List<UUID>> tableSearch() {
+        String title = titleSearchField.getText();
+        String category = categorySearchField.getText();
+        String priority = prioritySearchField.getText();
+        List<SortColumn> order = sortOrder;
+        return () -> sorted(taskController.searchIds(title, category, priority), order);
+    }
 
-        filteredTasks.setPredicate(task -> {
-            boolean matchesTitle = titleFilter.isEmpty() || task.getTitle().toLowerCase().contains(titleFilter);
-            boolean matchesCategory = categoryFilter.isEmpty() || 
-                    (task.getCategory() != null && task.getCategory().getName().toLowerCase().contains(categoryFilter));
-            boolean matchesPriority = priorityFilter.isEmpty() || task.getPriority().toLowerCase().contains(priorityFilter);
+    // Sorts by each column in turn, least significant first; every pass is stable. Runs in the background.
+    private List<UUID> sorted(List<UUID> ids, List<SortColumn> order) {
+        for (int i = order.size() - 1; i >= 0; i--) {
+            ids = taskController.sortIds(ids, order.get(i).key(), order.get(i).descending());
+        }
+        return ids;
+    }
 
-            return matchesTitle && matchesCategory && matchesPriority;
-        });
+    // Replaces the table's in-memory sort: the rows are sorted by precomputed keys on the search
+    // thread, and handed back in a single update.
+    private boolean sortTaskTable(TableView<Task> table) {
+        List<SortColumn> order = table.getSortOrder().stream()
+                .map(column -> new SortColumn(sortKeys.get(column), column.getSortType() == TableColumn.SortType.DESCENDING))
+                .toList();
+        if (order.isEmpty() && sortOrder.isEmpty()) {
+            return true;
+        }
+        sortOrder = order;
+        rowOrder = order.isEmpty() ? null : rowOrder(order);
+        if (order.isEmpty() || taskSearch.isRunning()) {
+            // Restores the search order, or re-runs a search in flight with the new order.
+            refreshTaskTable();
+        } else {
+            List<UUID> ids = taskList.ids();
+            taskSearch.requestNow(() -> sorted(ids, order));
+        }
+        return true;
+    }
+
+    private static Comparator<Task> rowOrder(List<SortColumn> order) {
+        Comparator<Task> comparator = TaskController.sortComparator(order.get(0).key(), order.get(0).descending());
+        for (SortColumn column : order.subList(1, order.size())) {
+            comparator = comparator.thenComparing(TaskController.sortComparator(column.key(), column.descending()));
+        }
+        return comparator;
     }
 
 
 
     private TableView<Task> createTaskTable() {
-        TableView<Task> tableView = new TableView<>(filteredTasks);
-    
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yy");
+        TableView<Task> tableView = new TableView<>(taskList);
     
         TableColumn<Task, String> titleColumn = new TableColumn<>("Task");
-        titleColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getTitle()));
+        titleColumn.setCellValueFactory(data -> rowOf(data.getValue()).titleProperty());
         titleColumn.setPrefWidth(200);
     
         TableColumn<Task, String> deadlineColumn = new TableColumn<>("Deadline");
-        deadlineColumn.setCellValueFactory(data -> {
-            LocalDate deadline = data.getValue().getDeadline();
-            return new SimpleStringProperty(deadline != null ? deadline.format(dateFormatter) : "No Deadline");
-        });
+        deadlineColumn.setCellValueFactory(data -> rowOf(data.getValue()).deadlineProperty());
         deadlineColumn.setPrefWidth(150);
     
-        TableColumn<Task, String> statusColumn = new TableColumn<>("Status");
-        statusColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getStatus().name()));
+        TableColumn<Task, Task.Status> statusColumn = new TableColumn<>("Status");
+        statusColumn.setCellValueFactory(data -> rowOf(data.getValue()).statusProperty());
         statusColumn.setCellFactory(column -> new TableCell<>() {
             @Override
-            protected void updateItem(String status, boolean empty) {
+            protected void updateItem(Task.Status status, boolean empty) {
                 super.updateItem(status, empty);
                 if (empty || status == null) {
                     setText(null);
                     setStyle("");
                 } else {
-                    setText(status);
-                    if (status.equals(Task.Status.DELAYED.name())) {
-                        setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-                    } else if(status.equals(Task.Status.COMPLETED.name())){
-                        setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
-                    } else if(status.equals(Task.Status.POSTPONED.name())){
-                        setStyle("-fx-text-fill: blue; -fx-font-weight: bold;");
-                    } else if(status.equals(Task.Status.OPEN.name())){
-                        setStyle("-fx-text-fill: purple; -fx-font-weight: bold;");
-                    } else if(status.equals(Task.Status.IN_PROGRESS.name())){
-                        setStyle("-fx-text-fill: orange; -fx-font-weight: bold;");
-                    }
-                    else {
-                        setStyle("");
-                    }
+                    setText(status.name());
+                    setStyle(STATUS_STYLES[status.ordinal()]);
                 }
             }
         });
         statusColumn.setPrefWidth(150);
     
         TableColumn<Task, String> priorityColumn = new TableColumn<>("Priority");
-        priorityColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getPriority()));
+        priorityColumn.setCellValueFactory(data -> rowOf(data.getValue()).priorityProperty());
         priorityColumn.setPrefWidth(150);
     
         TableColumn<Task, String> categoryColumn = new TableColumn<>("Category");
-        categoryColumn.setCellValueFactory(data -> {
-            if (data.getValue().getCategory() != null) {
-                return new SimpleStringProperty(data.getValue().getCategory().getName());
-            } else {
-                return new SimpleStringProperty("None");
-            }
-        });
+        categoryColumn.setCellValueFactory(data -> rowOf(data.getValue()).categoryProperty());
         categoryColumn.setPrefWidth(150);
 
         TableColumn<Task, String> descriptionColumn = new TableColumn<>("Description");
-        descriptionColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getDescription()));
+        descriptionColumn.setCellValueFactory(data -> rowOf(data.getValue()).descriptionProperty());
         descriptionColumn.setPrefWidth(200);
     
         tableView.getColumns().addAll(titleColumn, deadlineColumn, statusColumn, priorityColumn, categoryColumn,descriptionColumn);
+        sortKeys.put(titleColumn, TaskController.SortKey.TITLE);
+        sortKeys.put(deadlineColumn, TaskController.SortKey.DEADLINE);
+        sortKeys.put(statusColumn, TaskController.SortKey.STATUS);
+        sortKeys.put(priorityColumn, TaskController.SortKey.PRIORITY);
+        sortKeys.put(categoryColumn, TaskController.SortKey.CATEGORY);
+        sortKeys.put(descriptionColumn, TaskController.SortKey.DESCRIPTION);
+        tableView.setSortPolicy(this::sortTaskTable);
     
         // Add double-click listener to rows
         tableView.setRowFactory(tv -> {
@@ -167,7 +212,7 @@ public class MainContentPane extends BorderPane {
             row.setOnMouseClicked(event -> {
                 if (event.getClickCount() == 2 && (!row.isEmpty())) {
                     Task rowData = row.getItem();
-                    showEditTaskDialog(rowData,summaryPane, reminderController,reminderManagementPane);
+                    showEditTaskDialog(rowData, reminderController);
                 }
             });
             return row;
@@ -177,7 +222,7 @@ public class MainContentPane extends BorderPane {
     }
     
 
-    private void showEditTaskDialog(Task task, SummaryPane summaryPane, ReminderController reminderController,ReminderManagementPane reminderPane) {
+    private void showEditTaskDialog(Task task, ReminderController reminderController) {
         if (task == null) {
             showErrorAlert("No Task Selected", "Please select a task to edit.");
             return;
@@ -240,10 +285,6 @@ public class MainContentPane extends BorderPane {
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     taskController.deleteTask(task.getId()); 
-                    reminderController.deleteRemindersForTask(task.getId()); 
-                    reminderManagementPane.refreshAfterTaskDeletion(task.getId());
-                    refreshTaskTable(); 
-                    summaryPane.updateSummary(); 
                     dialog.close(); 
                 }
             });
@@ -284,28 +325,16 @@ public class MainContentPane extends BorderPane {
     
         
                 String selectedCategoryName = categoryComboBox.getValue();
-                Category selectedCategory = categoryController.getCategories().stream()
-                        .filter(category -> category.getName().equals(selectedCategoryName))
-                        .findFirst()
-                        .orElse(null);
+                Category selectedCategory = categoryController.getCategory(selectedCategoryName);
     
             
-                task.setTitle(titleField.getText().trim());
-                task.setDescription(descriptionField.getText().trim());
-                task.setPriority(priorityComboBox.getValue());
-                task.setDeadline(deadlinePicker.getValue());
-                task.setCategory(selectedCategory);
-    
-                Task.Status selectedStatus = statusComboBox.getValue();
-                if (selectedStatus == Task.Status.COMPLETED) {
-                    taskController.updateTaskStatus(task.getId(), Task.Status.COMPLETED); 
-                    reminderController.deleteRemindersForTask(task.getId()); 
-                    reminderManagementPane.refreshAfterTaskDeletion(task.getId());
-                } else {
-                    task.setStatus(selectedStatus);
-                }
-                refreshTaskTable(); 
-                summaryPane.updateSummary(); 
+                taskController.updateTaskDetails(task.getId(), titleField.getText().trim(),
+                        descriptionField.getText().trim(), priorityComboBox.getValue());
+                taskController.updateTaskDeadline(task.getId(), deadlinePicker.getValue());
+                taskController.updateTaskCategory(task.getId(), selectedCategory);
+    
+                // Completing a task also deletes its reminders.
+                taskController.updateTaskStatus(task.getId(), statusComboBox.getValue());
             }
             return null;
         });
@@ -443,7 +472,6 @@ public class MainContentPane extends BorderPane {
                 confirmation.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
                         reminderController.addReminder(task.getId(), reminderDate[0], description);
-                        reminderManagementPane.refreshReminderTable();
     
                         Alert infoAlert = new Alert(Alert.AlertType.INFORMATION);
                         infoAlert.setTitle("Reminder Set");
@@ -463,7 +491,7 @@ public class MainContentPane extends BorderPane {
     
 
 
-    private void showAddTaskDialog(SummaryPane summaryPane) {
+    private void showAddTaskDialog() {
         Dialog<Task> dialog = new Dialog<>();
         dialog.setTitle("Add New Task");
     
@@ -521,10 +549,7 @@ public class MainContentPane extends BorderPane {
                 }
     
                 String selectedCategoryName = categoryComboBox.getValue();
-                Category selectedCategory = categoryController.getCategories().stream()
-                        .filter(category -> category.getName().equals(selectedCategoryName))
-                        .findFirst()
-                        .orElse(null);
+                Category selectedCategory = categoryController.getCategory(selectedCategoryName);
     
                 Task newTask = new Task(
                         titleField.getText().trim(),
@@ -536,8 +561,6 @@ public class MainContentPane extends BorderPane {
                 );
     
                 taskController.addTask(newTask);
-                taskList.add(newTask);
-                summaryPane.updateSummary();
     
                 return newTask;
             }
@@ -547,8 +570,98 @@ public class MainContentPane extends BorderPane {
         dialog.showAndWait();
     }
     
+    // The cached cell values of a task, built the first time one of its cells is drawn.
+    private TaskRow rowOf(Task task) {
+        if (task == null) {
+            return DELETED_ROW; // deleted since the list was last updated; it is about to go
+        }
+        TaskRow row = rows.get(task.getId());
+        if (row == null) {
+            row = new TaskRow(task);
+            rows.put(task.getId(), row);
+        }
+        return row;
+    }
+
+    // Brings cached rows up to date in place, so the cells bound to them redraw themselves.
+    private void updateRows(List<Change> changes) {
+        for (Change change : changes) {
+            TaskRow row = rows.get(change.id());
+            if (row != null) {
+                Task task = taskController.getTaskById(change.id());
+                if (task != null) {
+                    row.update(task);
+                } else {
+                    rows.remove(change.id());
+                }
+            }
+        }
+    }
+
     public void refreshTaskTable() {
-        taskList.setAll(taskController.getTasks());
+        taskSearch.requestNow(tableSearch());
+    }
+
+    // Applies one dispatch of task changes to the visible rows.
+    private void applyTaskChanges(ChangeBus.Batch batch) {
+        List<Change> changes = batch.of(ChangeBus.Topic.TASKS);
+        if (batch.isReload(ChangeBus.Topic.TASKS)) {
+            rows.clear();
+        } else {
+            updateRows(changes);
+        }
+        if (batch.isReload(ChangeBus.Topic.TASKS) || changes.size() > MAX_ROW_UPDATES || taskSearch.isRunning()) {
+            // A search in flight may already be stale, so it is simply run again; so is a batch
+            // too large to patch in row by row.
+            refreshTaskTable();
+            return;
+        }
+        changes.forEach(this::applyTaskChange);
+    }
+
+    // In a sorted table a row that no longer fits between its neighbours is moved, and a new one
+    // goes after the rows that sort equal to it, which is where a stable sort would put it.
+    private void applyTaskChange(Change change) {
+        int index = taskList.indexOfId(change.id());
+        Task task = change.kind() == Change.Kind.REMOVED ? null : taskController.getTaskById(change.id());
+        boolean visible = task != null && taskController.matches(task, titleSearchField.getText(),
+                categorySearchField.getText(), prioritySearchField.getText());
+        if (index >= 0 && visible && fitsAt(index, task)) {
+            taskList.set(index, task);
+            return;
+        }
+        if (index >= 0) {
+            taskList.remove(index);
+        }
+        if (visible) {
+            taskList.add(rowOrder != null ? insertionIndex(task) : taskList.size(), task);
+        }
+    }
+
+    private boolean fitsAt(int index, Task task) {
+        return rowOrder == null
+                || (index == 0 || rowOrder.compare(rowTask(index - 1), task) <= 0)
+                && (index == taskList.size() - 1 || rowOrder.compare(task, rowTask(index + 1)) <= 0);
+    }
+
+    // Binary search for the first row that sorts after task.
+    private int insertionIndex(Task task) {
+        int low = 0;
+        int high = taskList.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rowOrder.compare(rowTask(mid), task) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Fetched directly rather than through taskList, so a search does not evict its cached pages.
+    private Task rowTask(int index) {
+        return taskController.getTaskById(taskList.idAt(index));
     }
 
     private void showErrorAlert(String title, String message) {
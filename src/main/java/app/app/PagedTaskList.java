@@ -0,0 +1,175 @@
+package app;
+
+import app.controllers.TaskController;
+import app.models.Task;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The task table's rows: a list of task ids whose tasks are fetched from the controller a page
+ * at a time, as the table asks for them.
+ * <p>
+ * A {@code TableView} only reads the rows it shows, so only the pages around the viewport are
+ * ever loaded. Pages are kept in a small least-recently-used cache, and reading near the edge
+ * of a page loads the next one in that direction ahead of time.
+ * <p>
+ * Used on the FX thread only.
+ */
+final class PagedTaskList extends ObservableListBase<Task> {
+    private static final int PAGE_SHIFT = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PREFETCH_MARGIN = PAGE_SIZE / 4;
+    private static final int MAX_CACHED_PAGES = 64;
+
+    private final TaskController taskController;
+    private List<UUID> ids = new ArrayList<>();
+    private final RowIndex rowIndex = new RowIndex(index -> ids.get(index), () -> ids.size());
+    private final Map<Integer, Task[]> pages = new LinkedHashMap<>(MAX_CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    PagedTaskList(TaskController taskController) {
+        this.taskController = taskController;
+        addListener(rowIndex);
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns the task at {@code index}, or {@code null} if it was deleted since this list was
+     * last told about it.
+     */
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, ids.size());
+        int page = index >>> PAGE_SHIFT;
+        int offset = index & (PAGE_SIZE - 1);
+        Task task = page(page)[offset];
+        if (offset < PREFETCH_MARGIN && page > 0) {
+            page(page - 1);
+        } else if (offset >= PAGE_SIZE - PREFETCH_MARGIN && (page + 1) << PAGE_SHIFT < ids.size()) {
+            page(page + 1);
+        }
+        return task;
+    }
+
+    /**
+     * Returns a copy of the ids, in row order, that stays valid while the rows change.
+     */
+    List<UUID> ids() {
+        return new ArrayList<>(ids);
+    }
+
+    UUID idAt(int index) {
+        return ids.get(index);
+    }
+
+    int indexOfId(UUID id) {
+        return rowIndex.indexOf(id);
+    }
+
+    /**
+     * Replaces the rows with the tasks with these ids, e.g. the result of a search.
+     */
+    void setIds(List<UUID> newIds) {
+        List<UUID> oldIds = ids;
+        ids = new ArrayList<>(newIds);
+        pages.clear();
+        beginChange();
+        nextRemove(0, lazyTasks(oldIds));
+        nextAdd(0, ids.size());
+        endChange();
+    }
+
+    @Override
+    public boolean setAll(Collection<? extends Task> tasks) {
+        List<UUID> newIds = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            newIds.add(task.getId());
+        }
+        setIds(newIds);
+        return true;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task old = get(index);
+        ids.set(index, task.getId());
+        Task[] page = pages.get(index >>> PAGE_SHIFT);
+        if (page != null) {
+            page[index & (PAGE_SIZE - 1)] = task;
+        }
+        beginChange();
+        nextSet(index, old);
+        endChange();
+        return old;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        ids.add(index, task.getId());
+        dropPagesFrom(index);
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        ids.remove(index);
+        dropPagesFrom(index);
+        beginChange();
+        nextRemove(index, old);
+        endChange();
+        return old;
+    }
+
+    private Task[] page(int page) {
+        Task[] tasks = pages.get(page);
+        if (tasks == null) {
+            int from = page << PAGE_SHIFT;
+            int to = Math.min(from + PAGE_SIZE, ids.size());
+            tasks = new Task[PAGE_SIZE];
+            for (int i = from; i < to; i++) {
+                tasks[i - from] = taskController.getTaskById(ids.get(i));
+            }
+            pages.put(page, tasks);
+        }
+        return tasks;
+    }
+
+    // Rows from index on have moved, so their pages no longer line up with ids.
+    private void dropPagesFrom(int index) {
+        pages.keySet().removeIf(page -> page >= index >>> PAGE_SHIFT);
+    }
+
+    // The removed rows of a change, fetched only if a listener actually reads them.
+    private List<Task> lazyTasks(List<UUID> oldIds) {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return taskController.getTaskById(oldIds.get(index));
+            }
+
+            @Override
+            public int size() {
+                return oldIds.size();
+            }
+        };
+    }
+}
@@ -7,23 +7,23 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.cell.PropertyValueFactory;
+import app.controllers.ChangeBus;
 import app.controllers.PriorityController;
 import app.models.Priority;
 
 public class PriorityManagementPane extends BorderPane {
     private final PriorityController priorityController;
     private final ObservableList<Priority> priorityList;
-    private final MainContentPane mainContentPane;
 
-    public PriorityManagementPane(PriorityController priorityController,MainContentPane mainContentPane) {
+    public PriorityManagementPane(PriorityController priorityController, ChangeBus changeBus) {
         this.priorityController = priorityController;
-        this.mainContentPane = mainContentPane;
 
-        if (priorityController.getPriorities().stream().noneMatch(p -> p.getName().equalsIgnoreCase("Default"))) {
+        if (priorityController.getPriority("Default") == null) {
             priorityController.addPriority("Default");
         }
 
         this.priorityList = FXCollections.observableArrayList(priorityController.getPriorities());
+        changeBus.subscribe(batch -> updatePriorityList(), ChangeBus.Topic.PRIORITIES);
 
         TableView<Priority> priorityTable = createPriorityTable();
 
@@ -86,8 +86,6 @@ public class PriorityManagementPane extends BorderPane {
                 showErrorAlert("Invalid Priority", "'Default' priority cannot be added.");
             } else if (!priorityController.addPriority(priorityName)) {
                 showErrorAlert("Duplicate Priority", "Priority already exists.");
-            } else {
-                updatePriorityList(); 
             }
         });
     }
@@ -113,9 +111,6 @@ public class PriorityManagementPane extends BorderPane {
                 showErrorAlert("Validation Error", "Priority name cannot be empty.");
             } else if (!priorityController.modifyPriority(priority.getName(), newPriorityName)) {
                 showErrorAlert("Error", "Failed to rename priority.");
-            } else {
-                updatePriorityList(); 
-                mainContentPane.refreshTaskTable();
             }
         });
     }
@@ -141,17 +136,11 @@ public class PriorityManagementPane extends BorderPane {
             if (response == ButtonType.OK) {
                 if (!priorityController.deletePriority(priority.getName())) {
                     showErrorAlert("Error", "Failed to delete priority.");
-                } else {
-                    updatePriorityList();  
-                    mainContentPane.refreshTaskTable();
                 }
             }
         });
     }
 
-    public void refreshTaskTable() {
-    }
-
 
     private void showErrorAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -1,7 +1,11 @@
 package app;
 
+import app.controllers.Change;
+import app.controllers.ChangeBus;
 import app.controllers.ReminderController;
 import app.models.Reminder;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -16,7 +20,12 @@ import app.controllers.TaskController;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 public class ReminderManagementPane extends BorderPane {
 
@@ -24,11 +33,20 @@ public class ReminderManagementPane extends BorderPane {
     private TableView<Reminder> reminderTable;
     private TaskController taskController;
     private ObservableList<Reminder> reminderList;
-
-    public ReminderManagementPane(ReminderController reminderController,TaskController taskController) {
+    private final RowIndex reminderRows;
+    // The task column's values by task id. The cells stay bound to these, and task changes on
+    // the bus set the new titles into them, so drawing a cell reads no task.
+    private final Map<UUID, ReadOnlyStringWrapper> taskTitles = new HashMap<>();
+    // Larger batches reload the table instead of patching it row by row.
+    private static final int MAX_ROW_UPDATES = 32;
+
+    public ReminderManagementPane(ReminderController reminderController,TaskController taskController, ChangeBus changeBus) {
         this.reminderController = reminderController;
         this.taskController = taskController;
         this.reminderList = FXCollections.observableArrayList(reminderController.getReminders());
+        this.reminderRows = new RowIndex(index -> reminderList.get(index).getId(), reminderList::size);
+        reminderList.addListener(reminderRows);
+        changeBus.subscribe(this::applyChanges, ChangeBus.Topic.REMINDERS, ChangeBus.Topic.TASKS);
 
         reminderTable = createReminderTable();
 
@@ -61,11 +79,7 @@ public class ReminderManagementPane extends BorderPane {
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yy");
 
         TableColumn<Reminder, String> taskColumn = new TableColumn<>("Task");
-        taskColumn.setCellValueFactory(data -> {
-            Task task = taskController.getTaskById(data.getValue().getTaskId());
-            return new javafx.beans.property.SimpleStringProperty(
-                task != null ? task.getTitle() : "Task Not Found");
-        });
+        taskColumn.setCellValueFactory(data -> taskTitleProperty(data.getValue().getTaskId()));
         taskColumn.setPrefWidth(200);
 
         TableColumn<Reminder, String> dateColumn = new TableColumn<>("Reminder Date");
@@ -87,8 +101,8 @@ public class ReminderManagementPane extends BorderPane {
             row.setOnMouseEntered(event -> {
                 if (!row.isEmpty()) {
                     row.setStyle("-fx-background-color: #e0e0e0;");
-                    Task task = taskController.getTaskById(row.getItem().getTaskId());
-                    row.setTooltip(new Tooltip(task != null ? "Task: " + task.getTitle() : "Task Not Found"));
+                    String title = taskController.getTaskTitle(row.getItem().getTaskId());
+                    row.setTooltip(new Tooltip(title != null ? "Task: " + title : "Task Not Found"));
                 }
             });
             row.setOnMouseExited(event -> row.setStyle(""));
@@ -219,8 +233,6 @@ public class ReminderManagementPane extends BorderPane {
             if (response == ButtonType.OK) {
                 boolean deleted = reminderController.deleteReminder(selectedReminder.getId());
                 if (deleted) {
-                    reminderList.setAll(reminderController.getReminders());
-                    reminderTable.refresh();
                     showInformationAlert("Reminder Deleted", "The selected reminder has been deleted.");
                 } else {
                     showErrorAlert("Error", "Failed to delete reminder.");
@@ -327,13 +339,7 @@ public class ReminderManagementPane extends BorderPane {
     
                 Optional<ButtonType> result = confirmation.showAndWait();
                 if (result.isPresent() && result.get() == ButtonType.OK) {
-                    selectedReminder.setReminderDate(reminderDate[0]);
-                    selectedReminder.setDescription(description);
-    
-                    reminderList.setAll(reminderController.getReminders());
-                    reminderTable.refresh();
-    
-                    reminderController.saveReminders("medialab/reminders.json");
+                    reminderController.updateReminder(selectedReminder.getId(), reminderDate[0], description);
     
                     showInformationAlert("Success", "Reminder modified successfully.");
                 }
@@ -345,16 +351,65 @@ public class ReminderManagementPane extends BorderPane {
     }
     
 
-    public void refreshAfterTaskDeletion(String taskId) {
-        reminderList.removeIf(reminder -> reminder.getTaskId().equals(taskId));
-        reminderController.deleteRemindersForTask(taskId);
+    public void refreshReminderTable() {
+        reminderList.setAll(reminderController.getReminders());
+        // The refresh binds every cell afresh, so titles of tasks no reminder points to any more go.
+        taskTitles.clear();
         reminderTable.refresh();
     }
 
+    // Applies one dispatch of changes; task changes only alter the task titles shown in the rows.
+    private void applyChanges(ChangeBus.Batch batch) {
+        updateTaskTitles(batch);
+        List<Change> changes = batch.of(ChangeBus.Topic.REMINDERS);
+        if (batch.isReload(ChangeBus.Topic.REMINDERS) || changes.size() > MAX_ROW_UPDATES) {
+            refreshReminderTable();
+            return;
+        }
+        changes.forEach(this::applyReminderChange);
+    }
 
-    public void refreshReminderTable() {
-        reminderList.setAll(reminderController.getReminders());
-        reminderTable.refresh();
+    private ReadOnlyStringProperty taskTitleProperty(UUID taskId) {
+        return taskTitles.computeIfAbsent(taskId, id -> new ReadOnlyStringWrapper(taskLabel(taskController.getTaskTitle(id))))
+                .getReadOnlyProperty();
+    }
+
+    private static String taskLabel(String title) {
+        return title != null ? title : "Task Not Found";
+    }
+
+    // Entries of deleted tasks are dropped once the cells showing them have been told.
+    private void updateTaskTitles(ChangeBus.Batch batch) {
+        if (batch.isReload(ChangeBus.Topic.TASKS)) {
+            taskTitles.entrySet().removeIf(entry -> !setTaskTitle(entry.getValue(), entry.getKey()));
+            return;
+        }
+        for (Change change : batch.of(ChangeBus.Topic.TASKS)) {
+            ReadOnlyStringWrapper title = taskTitles.get(change.id());
+            if (title != null && !setTaskTitle(title, change.id())) {
+                taskTitles.remove(change.id());
+            }
+        }
+    }
+
+    private boolean setTaskTitle(ReadOnlyStringWrapper title, UUID taskId) {
+        String current = taskController.getTaskTitle(taskId);
+        if (!Objects.equals(title.get(), taskLabel(current))) {
+            title.set(taskLabel(current));
+        }
+        return current != null;
+    }
+
+    private void applyReminderChange(Change change) {
+        int index = reminderRows.indexOf(change.id());
+        Reminder reminder = change.kind() == Change.Kind.REMOVED ? null : reminderController.getReminderById(change.id());
+        if (index >= 0 && reminder != null) {
+            reminderList.set(index, reminder);
+        } else if (index >= 0) {
+            reminderList.remove(index);
+        } else if (reminder != null) {
+            reminderList.add(reminder);
+        }
     }
 
     private void showErrorAlert(String title, String message) {
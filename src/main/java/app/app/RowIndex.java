@@ -0,0 +1,232 @@
+package app;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * The row of each id in an observable list of rows, so the row a change event is about can be
+ * found without scanning the list.
+ * <p>
+ * Listens to the list. Each id is given a slot in an array that is kept in row order but
+ * leaves gaps between the slots in use, and a Fenwick tree counts the slots in use, so the
+ * row of an id is the number of used slots before its own. Inserting a row takes a free slot
+ * between its neighbours; only when there is none are the slots of a small surrounding window
+ * spread out again, as in a packed memory array. Lookups and removals are O(log n), inserts
+ * O(log² n) amortized. Changes that replace most of the list, and reorderings, rebuild the
+ * slots on the next lookup instead. Used on the FX thread only.
+ */
+final class RowIndex implements ListChangeListener<Object> {
+    private static final int MIN_CAPACITY = 16;
+    // Larger changes cost as much as the rebuild anyway.
+    private static final int MAX_INCREMENTAL_ROWS = 64;
+    // Gap left after the last row when appending, so inserts near the end find room.
+    private static final int APPEND_GAP = 8;
+
+    private final IntFunction<UUID> idAt;
+    private final IntSupplier size;
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+    private UUID[] slots;
+    // Fenwick tree over slots, 1-based: used slots per range.
+    private int[] tree;
+    private int rows;
+    private boolean stale = true;
+
+    RowIndex(IntFunction<UUID> idAt, IntSupplier size) {
+        this.idAt = idAt;
+        this.size = size;
+    }
+
+    /**
+     * Returns the row with this id, or -1 if there is none.
+     */
+    int indexOf(UUID id) {
+        if (stale) {
+            rebuild();
+        }
+        Integer slot = slotsById.get(id);
+        return slot != null ? usedUpTo(slot) - 1 : -1;
+    }
+
+    @Override
+    public void onChanged(Change<?> change) {
+        while (!stale && change.next()) {
+            if (change.wasPermutated()
+                    || change.getRemovedSize() > MAX_INCREMENTAL_ROWS || change.getAddedSize() > MAX_INCREMENTAL_ROWS) {
+                stale = true;
+            } else if (change.wasReplaced() && change.getAddedSize() == change.getRemovedSize()) {
+                for (int row = change.getFrom(); row < change.getTo(); row++) {
+                    int slot = slotOfRow(row);
+                    slotsById.remove(slots[slot]);
+                    place(idAt.apply(row), slot);
+                }
+            } else if (change.wasAdded() || change.wasRemoved()) {
+                for (int i = 0; i < change.getRemovedSize(); i++) {
+                    removeRow(change.getFrom());
+                }
+                for (int row = change.getFrom(); row < change.getTo(); row++) {
+                    insertRow(row, idAt.apply(row));
+                }
+            }
+        }
+    }
+
+    private void removeRow(int row) {
+        int slot = slotOfRow(row);
+        slotsById.remove(slots[slot]);
+        slots[slot] = null;
+        count(slot, -1);
+        rows--;
+    }
+
+    private void insertRow(int row, UUID id) {
+        int slot = freeSlotBefore(row);
+        if (slot >= 0) {
+            place(id, slot);
+            count(slot, 1);
+        } else if (!spreadWith(row, id)) {
+            fill(idsWith(row, id), capacityFor(rows + 1));
+        }
+        rows++;
+    }
+
+    // A free slot between rows row - 1 and row, or -1 if they are adjacent.
+    private int freeSlotBefore(int row) {
+        int left = row > 0 ? slotOfRow(row - 1) : -1;
+        if (row == rows) {
+            int slot = Math.min(left + APPEND_GAP, slots.length - 1);
+            return slot > left ? slot : -1;
+        }
+        int right = slotOfRow(row);
+        return right - left > 1 ? (left + right) >>> 1 : -1;
+    }
+
+    // Spreads out the smallest aligned window around row with room for id as well, and places id
+    // in it. Small windows may be nearly full, the whole array at most half full, so a window
+    // that was just spread out has room left in each of its halves. False if the whole array is
+    // too full, or row is past the end, where the array is better rebuilt.
+    private boolean spreadWith(int row, UUID id) {
+        if (row == rows) {
+            return false;
+        }
+        int right = slotOfRow(row);
+        int depth = Integer.numberOfTrailingZeros(slots.length);
+        for (int level = 1; level <= depth; level++) {
+            int width = 1 << level;
+            int from = right & -width;
+            int used = usedUpTo(from + width - 1) - usedUpTo(from - 1);
+            if (2L * depth * (used + 1) > (long) width * (2 * depth - level)) {
+                continue;
+            }
+            UUID[] ids = new UUID[used + 1];
+            int next = 0;
+            for (int slot = from; slot < from + width; slot++) {
+                if (slot == right) {
+                    ids[next++] = id;
+                }
+                if (slots[slot] != null) {
+                    ids[next++] = slots[slot];
+                    slots[slot] = null;
+                    count(slot, -1);
+                }
+            }
+            for (int i = 0; i < ids.length; i++) {
+                int slot = from + (int) ((2L * i + 1) * width / (2L * ids.length));
+                place(ids[i], slot);
+                count(slot, 1);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // All ids in row order, with id added as the given row.
+    private UUID[] idsWith(int row, UUID id) {
+        UUID[] ids = new UUID[rows + 1];
+        int next = 0;
+        for (UUID slotted : slots) {
+            if (next == row) {
+                ids[next++] = id;
+            }
+            if (slotted != null) {
+                ids[next++] = slotted;
+            }
+        }
+        if (next == row) {
+            ids[next] = id;
+        }
+        return ids;
+    }
+
+    private void rebuild() {
+        rows = size.getAsInt();
+        UUID[] ids = new UUID[rows];
+        for (int row = 0; row < rows; row++) {
+            ids[row] = idAt.apply(row);
+        }
+        fill(ids, capacityFor(rows));
+        stale = false;
+    }
+
+    private void fill(UUID[] ids, int capacity) {
+        slots = new UUID[capacity];
+        tree = new int[capacity + 1];
+        slotsById.clear();
+        // Spread over the lower half, leaving the upper half for appends.
+        for (int i = 0; i < ids.length; i++) {
+            int slot = (int) ((2L * i + 1) * capacity / (4L * ids.length));
+            place(ids[i], slot);
+            tree[slot + 1] = 1;
+        }
+        // Builds the Fenwick tree from the plain counts in linear time.
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void place(UUID id, int slot) {
+        slots[slot] = id;
+        slotsById.put(id, slot);
+    }
+
+    // At least four slots per row, and a power of two so that windows can be aligned.
+    private static int capacityFor(int rows) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, rows) * 4 - 1) << 1);
+    }
+
+    private void count(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Number of used slots from 0 up to and including slot.
+    private int usedUpTo(int slot) {
+        int used = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            used += tree[i];
+        }
+        return used;
+    }
+
+    // The slot of the given row, found by descending the Fenwick tree.
+    private int slotOfRow(int row) {
+        int remaining = row + 1;
+        int position = 0;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
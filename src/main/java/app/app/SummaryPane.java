@@ -1,9 +1,9 @@
 package app;
 
+import app.controllers.ChangeBus;
 import app.controllers.ReminderController;
 import app.controllers.TaskController;
 import app.models.Reminder;
-import app.models.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -24,8 +24,16 @@ public class SummaryPane extends HBox {
     private ReminderController reminderController;
     private Label bellIcon;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yy");
-
-    public SummaryPane(TaskController taskController, ReminderController reminderController) {
+    // Total, completed, delayed and upcoming, in pill order, with the counts they last showed.
+    private final Label[] countBadges = new Label[4];
+    private final long[] shownCounts = { -1, -1, -1, -1 };
+    private static final String BELL_DUE_STYLE = "-fx-font-size: 30px; -fx-text-fill: red; -fx-cursor: hand;";
+    private static final String BELL_IDLE_STYLE = "-fx-font-size: 30px; -fx-text-fill: green; -fx-cursor: hand;";
+    private final Tooltip dueTooltip = new Tooltip("Reminders Due Today: Click to view");
+    private final Tooltip idleTooltip = new Tooltip("No reminders due today");
+    private Boolean shownRemindersDue;
+
+    public SummaryPane(TaskController taskController, ReminderController reminderController, ChangeBus changeBus) {
         this.taskController = taskController;
         this.reminderController = reminderController;
 
@@ -35,17 +43,15 @@ public class SummaryPane extends HBox {
         setStyle("-fx-background-color: #f9f9f9;");
 
         HBox pillContainer = new HBox(
-                createPill("Total Tasks", "0", "#000000", "#000000"),
-                createPill("Completed", "0", "#000000", "#2ECC71"),
-                createPill("Delayed", "0", "#000000", "#E74C3C"),
-                createPill("Upcoming", "0", "#000000", "#9B59B6")
+                createPill(0, "Total Tasks", "0", "#000000", "#000000"),
+                createPill(1, "Completed", "0", "#000000", "#2ECC71"),
+                createPill(2, "Delayed", "0", "#000000", "#E74C3C"),
+                createPill(3, "Upcoming", "0", "#000000", "#9B59B6")
         );
         pillContainer.setSpacing(20);
 
         
         bellIcon = new Label("\uD83D\uDD14");  
-        bellIcon.setStyle("-fx-font-size: 30px; -fx-text-fill: green; -fx-cursor: hand;");
-        Tooltip.install(bellIcon, new Tooltip("No reminders due today"));
 
         bellIcon.setOnMouseClicked(event -> toggleNotificationPopup());
 
@@ -54,10 +60,18 @@ public class SummaryPane extends HBox {
         getChildren().addAll(pillContainer, bellIcon);
 
         updateSummary();
-        checkReminders();
+        // The bus already coalesces a burst of changes into one call per pulse.
+        changeBus.subscribe(batch -> {
+            if (!batch.of(ChangeBus.Topic.TASKS).isEmpty()) {
+                updateCounts();
+            }
+            if (!batch.of(ChangeBus.Topic.REMINDERS).isEmpty()) {
+                checkReminders();
+            }
+        }, ChangeBus.Topic.TASKS, ChangeBus.Topic.REMINDERS);
     }
 
-    private StackPane createPill(String title, String value, String backgroundColor, String badgeColor) {
+    private StackPane createPill(int index, String title, String value, String backgroundColor, String badgeColor) {
         Label titleLabel = new Label(title);
         titleLabel.setFont(new Font("Arial", 14));
         titleLabel.setTextFill(Color.web(backgroundColor));
@@ -68,6 +82,7 @@ public class SummaryPane extends HBox {
         badgeLabel.setTextFill(Color.web("#FFFFFF"));
         badgeLabel.setPadding(new Insets(2, 8, 2, 8));
         badgeLabel.setStyle("-fx-background-color: " + badgeColor + "; -fx-background-radius: 20;");
+        countBadges[index] = badgeLabel;
 
         HBox pillContent = new HBox(titleLabel, badgeLabel);
         pillContent.setSpacing(10);
@@ -80,32 +95,39 @@ public class SummaryPane extends HBox {
     }
 
     public void updateSummary() {
-        HBox pillContainer = (HBox) getChildren().get(0);
+        updateCounts();
+        checkReminders();
+    }
 
-        ((Label) ((HBox) ((StackPane) pillContainer.getChildren().get(0)).getChildren().get(0)).getChildren().get(1))
-                .setText(String.valueOf(taskController.getTotalTasks()));
-        ((Label) ((HBox) ((StackPane) pillContainer.getChildren().get(1)).getChildren().get(0)).getChildren().get(1))
-                .setText(String.valueOf(taskController.getCompletedTasks()));
-        ((Label) ((HBox) ((StackPane) pillContainer.getChildren().get(2)).getChildren().get(0)).getChildren().get(1))
-                .setText(String.valueOf(taskController.getDelayedTasks()));
-        ((Label) ((HBox) ((StackPane) pillContainer.getChildren().get(3)).getChildren().get(0)).getChildren().get(1))
-                .setText(String.valueOf(taskController.getUpcomingTasks()));
+    // The controller keeps these counts up to date, so reading them is cheap.
+    private void updateCounts() {
+        showCount(0, taskController.getTotalTasks());
+        showCount(1, taskController.getCompletedTasks());
+        showCount(2, taskController.getDelayedTasks());
+        showCount(3, taskController.getUpcomingTasks());
+    }
 
-        checkReminders();
+    private void showCount(int index, long count) {
+        if (shownCounts[index] != count) {
+            shownCounts[index] = count;
+            countBadges[index].setText(String.valueOf(count));
+        }
     }
 
     private void checkReminders() {
-        List<Reminder> remindersDueToday = reminderController.getReminders().stream()
-                .filter(reminder -> reminder.getReminderDate().equals(LocalDate.now()))
-                .toList();
-
-        if (!remindersDueToday.isEmpty()) {
-            bellIcon.setStyle("-fx-font-size: 30px; -fx-text-fill: red; -fx-cursor: hand;");
-            Tooltip tooltip = new Tooltip("Reminders Due Today: Click to view");
-            Tooltip.install(bellIcon, tooltip);
+        boolean due = reminderController.hasRemindersDueOn(LocalDate.now());
+        if (shownRemindersDue != null && shownRemindersDue == due) {
+            return;
+        }
+        shownRemindersDue = due;
+        if (due) {
+            bellIcon.setStyle(BELL_DUE_STYLE);
+            Tooltip.uninstall(bellIcon, idleTooltip);
+            Tooltip.install(bellIcon, dueTooltip);
         } else {
-            bellIcon.setStyle("-fx-font-size: 30px; -fx-text-fill: green; -fx-cursor: hand;");
-            Tooltip.install(bellIcon, new Tooltip("No reminders due today"));
+            bellIcon.setStyle(BELL_IDLE_STYLE);
+            Tooltip.uninstall(bellIcon, dueTooltip);
+            Tooltip.install(bellIcon, idleTooltip);
         }
     }
 
@@ -130,9 +152,7 @@ public class SummaryPane extends HBox {
     popupRoot.getChildren().add(titleLabel);
 
     
-    List<Reminder> remindersDueToday = reminderController.getReminders().stream()
-            .filter(reminder -> reminder.getReminderDate().equals(LocalDate.now()))
-            .toList();
+    List<Reminder> remindersDueToday = reminderController.getRemindersDueOn(LocalDate.now());
 
     if (remindersDueToday.isEmpty()) {
         Label noReminderLabel = new Label("You have no reminders due today.");
@@ -140,8 +160,8 @@ public class SummaryPane extends HBox {
         popupRoot.getChildren().add(noReminderLabel);
     } else {
         remindersDueToday.forEach(reminder -> {
-            Task task = taskController.getTaskById(reminder.getTaskId());
-            String taskName = (task != null) ? task.getTitle() : "Unknown Task";
+            String title = taskController.getTaskTitle(reminder.getTaskId());
+            String taskName = (title != null) ? title : "Unknown Task";
 
             VBox reminderItem = new VBox();
             reminderItem.setPadding(new Insets(10));
@@ -0,0 +1,83 @@
+package app;
+
+import app.models.Task;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * The cell values of one task table row, formatted once and kept in stable properties.
+ * <p>
+ * The table's cell value factories hand out these properties instead of building new ones on
+ * every render; {@link #update} pushes a changed task into them, and only the values that
+ * actually differ are set.
+ */
+final class TaskRow {
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yy");
+
+    private final ReadOnlyStringWrapper title = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper deadline = new ReadOnlyStringWrapper();
+    private final ReadOnlyObjectWrapper<Task.Status> status = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyStringWrapper priority = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper category = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper description = new ReadOnlyStringWrapper();
+    private LocalDate deadlineDate;
+
+    /**
+     * A row with no values, for a task that no longer exists.
+     */
+    TaskRow() {
+    }
+
+    TaskRow(Task task) {
+        update(task);
+    }
+
+    void update(Task task) {
+        setIfChanged(title, task.getTitle());
+        if (deadline.get() == null || !Objects.equals(deadlineDate, task.getDeadline())) {
+            deadlineDate = task.getDeadline();
+            deadline.set(deadlineDate != null ? deadlineDate.format(DATE_FORMAT) : "No Deadline");
+        }
+        status.set(task.getStatus());
+        setIfChanged(priority, task.getPriority());
+        setIfChanged(category, task.getCategory() != null ? task.getCategory().getName() : "None");
+        setIfChanged(description, task.getDescription());
+    }
+
+    ReadOnlyStringProperty titleProperty() {
+        return title.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty deadlineProperty() {
+        return deadline.getReadOnlyProperty();
+    }
+
+    ReadOnlyObjectProperty<Task.Status> statusProperty() {
+        return status.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty priorityProperty() {
+        return priority.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty categoryProperty() {
+        return category.getReadOnlyProperty();
+    }
+
+    ReadOnlyStringProperty descriptionProperty() {
+        return description.getReadOnlyProperty();
+    }
+
+    // String properties only compare references, so equal text would still fire a change.
+    private static void setIfChanged(ReadOnlyStringWrapper property, String value) {
+        if (!Objects.equals(property.get(), value)) {
+            property.set(value);
+        }
+    }
+}
@@ -1,73 +1,142 @@
 package app.controllers;
 
 import app.models.Category;
+import app.utils.Journal;
 import app.utils.JsonUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class CategoryController {
-    private List<Category> categories;
+    // The listed categories in the order they were added, by case-insensitive name.
+    private final NamedList<Category> categories = new NamedList<>();
+    // One Category instance per name, shared by the list above and by every task in it.
+    private final NameRegistry<Category> registry = new NameRegistry<>(Category::new);
     private TaskController taskController;  
+    private Journal journal;
+    private ChangeBus changeBus;
 
     public CategoryController(TaskController taskController) {
         this.taskController = taskController;
-        this.categories = new ArrayList<>();
+        if (taskController != null) {
+            taskController.setCategoryRegistry(registry);
+        }
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void setChangeBus(ChangeBus changeBus) {
+        this.changeBus = changeBus;
     }
 
     public void loadCategories(String filePath) {
+        List<Category> loaded;
         try {
-            categories = new ArrayList<>(JsonUtils.readJsonFile(filePath, Category[].class)); 
-            System.out.println("Categories loaded successfully.");
+            loaded = JsonUtils.readDataFile(filePath, Category.class);
         } catch (IOException e) {
             System.out.println("Failed to load categories: " + e.getMessage());
+            return;
         }
+        categories.clear();
+        publishReload();
+        loaded.forEach(category -> addToList(category.getName()));
+        System.out.println("Categories loaded successfully.");
     }
     
 
-    public void saveCategories(String filePath) {
+    public boolean saveCategories(String filePath) {
         try {
-            JsonUtils.writeJsonFile(filePath, categories);
+            JsonUtils.writeDataFile(filePath, categories.values(), Category.class);
             System.out.println("Categories saved successfully.");
+            return true;
         } catch (IOException e) {
             System.out.println("Failed to save categories: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void applyJournalEntry(Journal.Entry entry) throws IOException {
+        switch (entry.op()) {
+            case "put" -> {
+                addToList(entry.dataAs(Category.class).getName());
+            }
+            case "rename" -> {
+                String from = entry.data().path("from").asText();
+                String to = entry.data().path("to").asText();
+                if (renameInList(from, to)) {
+                    taskController.updateTasksWithModifiedCategory(from, to);
+                }
+            }
+            case "remove" -> {
+                String name = entry.data().asText();
+                removeFromList(name);
+                registry.remove(name);
+            }
+            default -> throw new IOException("Unknown category journal operation: " + entry.op());
         }
     }
 
     public List<Category> getCategories() {
-        return new ArrayList<>(categories);  
+        return categories.values();  
+    }
+
+    /**
+     * Returns copies of the listed categories that later renames do not touch, for writing a
+     * snapshot on another thread.
+     */
+    public List<Category> getCategorySnapshot() {
+        return categories.values().stream().map(category -> new Category(category.getName())).toList();
+    }
+
+    /**
+     * Returns the listed category named {@code name}, ignoring case, or {@code null}.
+     */
+    public Category getCategory(String name) {
+        return name != null ? categories.get(name) : null;
     }
 
     public boolean addCategory(String name) {
-        for (Category c : categories) {
-            if (c.getName().equalsIgnoreCase(name)) {
-                System.out.println("Category already exists.");
-                return false;
-            }
+        Category category = addToList(name);
+        if (category == null) {
+            System.out.println("Category already exists.");
+            return false;
+        }
+        if (journal != null) {
+            journal.append("category", "put", category);
         }
-        categories.add(new Category(name));
         return true;
     }
 
     
     public boolean modifyCategory(String oldName, String newName) {
-        for (Category c : categories) {
-            if (c.getName().equalsIgnoreCase(oldName)) {
-                c.setName(newName);
-                taskController.updateTasksWithModifiedCategory(oldName, newName);  
-                return true;
-            }
+        if (getCategory(oldName) == null) {
+            System.out.println("Category not found.");
+            return false;
+        }
+        if (!renameInList(oldName, newName)) {
+            System.out.println("Category already exists.");
+            return false;
+        }
+        if (journal != null) {
+            journal.append("category", "rename", Map.of("from", oldName, "to", newName));
         }
-        System.out.println("Category not found.");
-        return false;
+        taskController.updateTasksWithModifiedCategory(oldName, newName);  
+        return true;
     }
 
     
-    public List<String> deleteCategory(String name) {
-        boolean removed = categories.removeIf(c -> c.getName().equalsIgnoreCase(name));
-        if (removed) {
-            List<String> deletedTaskIds = taskController.deleteTasksByCategory(name); 
+    public List<UUID> deleteCategory(String name) {
+        if (removeFromList(name)) {
+            registry.remove(name);
+            if (journal != null) {
+                journal.append("category", "remove", name);
+            }
+            List<UUID> deletedTaskIds = taskController.deleteTasksByCategory(name); 
             System.out.println("Category '" + name + "' and its associated tasks have been deleted.");
             return deletedTaskIds; 
         } else {
@@ -77,7 +146,56 @@ public class CategoryController {
     }
 
 
+    // Adds the canonical category for name unless one is already listed; null if it was.
+    private Category addToList(String name) {
+        if (categories.contains(name)) {
+            return null;
+        }
+        Category category = registry.intern(name);
+        categories.add(name, category);
+        publishReload();
+        return category;
+    }
+
+    // Renames the listed category in place; false if it is missing or newName is taken by another.
+    private boolean renameInList(String oldName, String newName) {
+        Category category = categories.get(oldName);
+        if (category == null || !categories.rename(oldName, newName)) {
+            return false;
+        }
+        changeShared(() -> {
+            category.setName(newName);
+            registry.rename(oldName, newName);
+        });
+        publishReload();
+        return true;
+    }
+
+    // Tasks share the instance with searches running on another thread, see TaskController#changeShared.
+    private void changeShared(Runnable change) {
+        if (taskController != null) {
+            taskController.changeShared(change);
+        } else {
+            change.run();
+        }
+    }
+
+    private boolean removeFromList(String name) {
+        if (categories.remove(name) == null) {
+            return false;
+        }
+        publishReload();
+        return true;
+    }
+
+    // The list views are small, so any change to them is published as a reload.
+    private void publishReload() {
+        if (changeBus != null) {
+            changeBus.publish(ChangeBus.Topic.CATEGORIES, Change.RELOADED);
+        }
+    }
+
     public void printCategories() {
-        categories.forEach(System.out::println);
+        categories.values().forEach(System.out::println);
     }
 }
@@ -0,0 +1,15 @@
+package app.controllers;
+
+import java.util.UUID;
+
+/**
+ * One change made through a controller, so that views can update just the affected row.
+ * <p>
+ * {@link Kind#RELOADED} stands for changes too broad to list one by one, such as a category
+ * rename; its id is {@code null} and views should re-read everything.
+ */
+public record Change(Kind kind, UUID id) {
+    public enum Kind { ADDED, UPDATED, REMOVED, RELOADED }
+
+    static final Change RELOADED = new Change(Kind.RELOADED, null);
+}
@@ -0,0 +1,133 @@
+package app.controllers;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link Change}s from the controllers to the views.
+ * <p>
+ * Changes are queued as they are published and handed to subscribers in one {@link Batch}
+ * per turn of the dispatcher; with {@code Platform::runLater} that is at most once per UI
+ * pulse. Within a batch the changes to one id are coalesced (an update after an add is still
+ * an add, an add followed by a remove cancels out), and a topic that saw a
+ * {@link Change.Kind#RELOADED} change, or too many changes to be worth applying one by one,
+ * is reduced to a single reload.
+ * <p>
+ * Changes may be published from any thread; subscribers always run on the dispatcher.
+ */
+public final class ChangeBus {
+    public enum Topic { TASKS, CATEGORIES, PRIORITIES, REMINDERS }
+
+    /**
+     * The coalesced changes of one dispatch, by topic.
+     */
+    public record Batch(Map<Topic, List<Change>> changes) {
+        public List<Change> of(Topic topic) {
+            return changes.getOrDefault(topic, List.of());
+        }
+
+        public boolean isReload(Topic topic) {
+            List<Change> topicChanges = of(topic);
+            return topicChanges.size() == 1 && topicChanges.get(0).kind() == Change.Kind.RELOADED;
+        }
+    }
+
+    private record Subscriber(Set<Topic> topics, Consumer<? super Batch> consumer) {}
+
+    // Past this many distinct ids a topic is delivered as a reload instead.
+    private static final int MAX_CHANGES_PER_TOPIC = 256;
+
+    private final Executor dispatcher;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<Topic, Map<UUID, Change.Kind>> pending = new EnumMap<>(Topic.class);
+    private final Set<Topic> pendingReloads = EnumSet.noneOf(Topic.class);
+    private boolean flushScheduled;
+
+    /**
+     * @param dispatcher runs the deliveries, e.g. {@code Platform::runLater}
+     */
+    public ChangeBus(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Calls {@code subscriber} once per dispatch in which any of {@code topics} changed.
+     */
+    public void subscribe(Consumer<? super Batch> subscriber, Topic... topics) {
+        subscribers.add(new Subscriber(EnumSet.of(topics[0], topics), subscriber));
+    }
+
+    void publish(Topic topic, Change change) {
+        synchronized (this) {
+            if (change.kind() == Change.Kind.RELOADED) {
+                pendingReloads.add(topic);
+                pending.remove(topic);
+            } else if (!pendingReloads.contains(topic)) {
+                Map<UUID, Change.Kind> topicChanges = pending.computeIfAbsent(topic, t -> new LinkedHashMap<>());
+                Change.Kind merged = merge(topicChanges.get(change.id()), change.kind());
+                if (merged == null) {
+                    topicChanges.remove(change.id());
+                } else {
+                    topicChanges.put(change.id(), merged);
+                }
+                if (topicChanges.size() > MAX_CHANGES_PER_TOPIC) {
+                    pendingReloads.add(topic);
+                    pending.remove(topic);
+                }
+            }
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        dispatcher.execute(this::flush);
+    }
+
+    // The net effect of an earlier and a later change to the same id; null if they cancel out.
+    private static Change.Kind merge(Change.Kind earlier, Change.Kind later) {
+        if (earlier == null) {
+            return later;
+        }
+        return switch (later) {
+            case REMOVED -> earlier == Change.Kind.ADDED ? null : Change.Kind.REMOVED;
+            case ADDED -> earlier == Change.Kind.REMOVED ? Change.Kind.UPDATED : Change.Kind.ADDED;
+            default -> earlier;
+        };
+    }
+
+    private void flush() {
+        Map<Topic, List<Change>> changes = new EnumMap<>(Topic.class);
+        synchronized (this) {
+            flushScheduled = false;
+            pendingReloads.forEach(topic -> changes.put(topic, List.of(Change.RELOADED)));
+            pending.forEach((topic, topicChanges) -> {
+                if (!topicChanges.isEmpty()) {
+                    List<Change> list = new ArrayList<>(topicChanges.size());
+                    topicChanges.forEach((id, kind) -> list.add(new Change(kind, id)));
+                    changes.put(topic, list);
+                }
+            });
+            pendingReloads.clear();
+            pending.clear();
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Batch batch = new Batch(changes);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.topics().stream().anyMatch(changes::containsKey)) {
+                subscriber.consumer().accept(batch);
+            }
+        }
+    }
+}
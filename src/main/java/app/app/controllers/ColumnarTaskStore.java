@@ -0,0 +1,83 @@
+package app.controllers;
+
+import java.util.Arrays;
+
+/**
+ * {@link TaskStore} that keeps the fixed-width task fields in parallel primitive arrays:
+ * status ordinals in a {@code byte[]}, deadlines as epoch days in an {@code int[]}, and
+ * category and priority dictionary ids in {@code int[]}s.
+ */
+public final class ColumnarTaskStore extends RowTaskStore {
+    private byte[] statuses;
+    private int[] deadlines;
+    private int[] categories;
+    private int[] priorities;
+
+    public ColumnarTaskStore() {
+        clear();
+    }
+
+    @Override
+    byte readStatus(int row) {
+        return statuses[row];
+    }
+
+    @Override
+    void writeStatus(int row, byte status) {
+        statuses[row] = status;
+    }
+
+    @Override
+    int readDeadline(int row) {
+        return deadlines[row];
+    }
+
+    @Override
+    void writeDeadline(int row, int epochDay) {
+        deadlines[row] = epochDay;
+    }
+
+    @Override
+    int readCategory(int row) {
+        return categories[row];
+    }
+
+    @Override
+    void writeCategory(int row, int category) {
+        categories[row] = category;
+    }
+
+    @Override
+    int readPriority(int row) {
+        return priorities[row];
+    }
+
+    @Override
+    void writePriority(int row, int priority) {
+        priorities[row] = priority;
+    }
+
+    @Override
+    void allocateColumns(int capacity) {
+        statuses = new byte[capacity];
+        deadlines = new int[capacity];
+        categories = new int[capacity];
+        priorities = new int[capacity];
+    }
+
+    @Override
+    void growColumns(int capacity) {
+        statuses = Arrays.copyOf(statuses, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    @Override
+    void moveColumns(int from, int to) {
+        statuses[to] = statuses[from];
+        deadlines[to] = deadlines[from];
+        categories[to] = categories[from];
+        priorities[to] = priorities[from];
+    }
+}
@@ -0,0 +1,233 @@
+package app.controllers;
+
+import app.models.Category;
+import app.models.Task;
+import app.utils.JsonUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Default {@link TaskStore}: plain {@link Task} objects behind hash and tree indexes.
+ */
+public class IndexedTaskStore implements TaskStore {
+    // Primary index: task id -> task, kept in insertion order so all() stays stable.
+    private final Map<UUID, Task> tasks = new LinkedHashMap<>();
+    // Secondary index: lower-cased category name -> tasks in that category.
+    private final Map<String, Set<Task>> tasksByCategory = new HashMap<>();
+    // Deadline index: epoch day -> tasks due that day, for overdue sweeps and range counts.
+    private final NavigableMap<Long, Set<Task>> tasksByDeadline = new TreeMap<>();
+    // Number of tasks per status, indexed by Task.Status ordinal.
+    private final long[] statusCounts = new long[Task.Status.values().length];
+
+    @Override
+    public void clear() {
+        tasks.clear();
+        tasksByCategory.clear();
+        tasksByDeadline.clear();
+        Arrays.fill(statusCounts, 0);
+    }
+
+    @Override
+    public Task put(Task task) {
+        // Replacing the value of an existing id keeps its place in the insertion order.
+        Task previous = tasks.put(task.getId(), task);
+        if (previous != null) {
+            unindexTask(previous);
+        }
+        indexTask(task);
+        return task;
+    }
+
+    @Override
+    public Task get(UUID id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public String title(UUID id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            return null;
+        }
+        // A title still in a mapped snapshot is read from it without loading the task's text.
+        String title = JsonUtils.titleOf(task);
+        return title != null ? title : "";
+    }
+
+    @Override
+    public Task remove(UUID id) {
+        Task task = tasks.remove(id);
+        if (task != null) {
+            unindexTask(task);
+        }
+        return task;
+    }
+
+    @Override
+    public List<Task> removeCategory(String categoryName) {
+        Set<Task> tasksToRemove = tasksByCategory.remove(categoryKey(categoryName));
+        if (tasksToRemove == null) {
+            return new ArrayList<>();
+        }
+
+        tasksToRemove.forEach(task -> {
+            tasks.remove(task.getId());
+            removeFromDeadlineIndex(task);
+            countStatus(task.getStatus(), -1);
+        });
+        return new ArrayList<>(tasksToRemove);
+    }
+
+    @Override
+    public void renameCategory(String oldName, String newName) {
+        String oldKey = NameRegistry.key(oldName);
+        String newKey = NameRegistry.key(newName);
+        if (oldKey.equals(newKey)) {
+            return;
+        }
+        // The tasks already see the new name through the shared category; only the bucket moves.
+        Set<Task> categoryTasks = tasksByCategory.remove(oldKey);
+        if (categoryTasks != null) {
+            tasksByCategory.merge(newKey, categoryTasks, (existing, moved) -> {
+                existing.addAll(moved);
+                return existing;
+            });
+        }
+    }
+
+    @Override
+    public void setCategory(Task task, Category category) {
+        unindexTask(task);
+        task.setCategory(category);
+        indexTask(task);
+    }
+
+    @Override
+    public void setDeadline(Task task, LocalDate deadline) {
+        unindexTask(task);
+        task.setDeadline(deadline);
+        indexTask(task);
+    }
+
+    @Override
+    public void setStatus(Task task, Task.Status status) {
+        countStatus(task.getStatus(), -1);
+        task.setStatus(status);
+        countStatus(status, 1);
+    }
+
+    @Override
+    public void renamePriority(String oldName, String newName) {
+        // Priorities are not indexed here; the shared instance already carries the new name.
+    }
+
+    @Override
+    public void mergePriority(String deletedName, String replacementName) {
+        // Tasks resolve the deleted priority to its replacement on read.
+    }
+
+    @Override
+    public void markOverdue(long todayEpochDay) {
+        tasksByDeadline.headMap(todayEpochDay, false).values().forEach(overdueTasks -> overdueTasks.forEach(task -> {
+            if (task.getStatus() != Task.Status.COMPLETED) {
+                setStatus(task, Task.Status.DELAYED);
+            }
+        }));
+    }
+
+    @Override
+    public List<Task> inCategory(String categoryName) {
+        Set<Task> categoryTasks = tasksByCategory.get(categoryKey(categoryName));
+        return categoryTasks != null ? new ArrayList<>(categoryTasks) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Task> all() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    @Override
+    public List<UUID> ids() {
+        return new ArrayList<>(tasks.keySet());
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public long countByStatus(Task.Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    @Override
+    public long countDueBetween(long fromEpochDay, long toEpochDay) {
+        long due = 0;
+        for (Set<Task> dueTasks : tasksByDeadline.subMap(fromEpochDay, true, toEpochDay, true).values()) {
+            due += dueTasks.size();
+        }
+        return due;
+    }
+
+    // Only the secondary indexes; the id map is updated by the callers so edits keep the order.
+    private void indexTask(Task task) {
+        if (task.getCategory() != null && task.getCategory().getName() != null) {
+            tasksByCategory.computeIfAbsent(categoryKey(task.getCategory().getName()), key -> new LinkedHashSet<>()).add(task);
+        }
+        if (task.getDeadline() != null) {
+            tasksByDeadline.computeIfAbsent(task.getDeadline().toEpochDay(), day -> new LinkedHashSet<>()).add(task);
+        }
+        countStatus(task.getStatus(), 1);
+    }
+
+    private void unindexTask(Task task) {
+        if (task.getCategory() != null && task.getCategory().getName() != null) {
+            String key = categoryKey(task.getCategory().getName());
+            Set<Task> categoryTasks = tasksByCategory.get(key);
+            if (categoryTasks != null) {
+                categoryTasks.remove(task);
+                if (categoryTasks.isEmpty()) {
+                    tasksByCategory.remove(key);
+                }
+            }
+        }
+        removeFromDeadlineIndex(task);
+        countStatus(task.getStatus(), -1);
+    }
+
+    private void removeFromDeadlineIndex(Task task) {
+        if (task.getDeadline() == null) {
+            return;
+        }
+        long day = task.getDeadline().toEpochDay();
+        Set<Task> dueTasks = tasksByDeadline.get(day);
+        if (dueTasks != null) {
+            dueTasks.remove(task);
+            if (dueTasks.isEmpty()) {
+                tasksByDeadline.remove(day);
+            }
+        }
+    }
+
+    private void countStatus(Task.Status status, int delta) {
+        if (status != null) {
+            statusCounts[status.ordinal()] += delta;
+        }
+    }
+
+    private static String categoryKey(String categoryName) {
+        return NameRegistry.key(categoryName);
+    }
+}
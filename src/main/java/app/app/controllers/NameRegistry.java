@@ -0,0 +1,51 @@
+package app.controllers;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Canonical instances by case-insensitive name. Every task that refers to a name shares the
+ * registered instance, so renaming the instance renames it for all of them at once.
+ * <p>
+ * Safe to use from the loader threads, which intern names while the data files are read.
+ */
+final class NameRegistry<T> {
+    private final Map<String, T> entries = new ConcurrentHashMap<>();
+    private final Function<String, T> factory;
+
+    NameRegistry(Function<String, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the instance registered for {@code name}, registering a new one if there is none.
+     */
+    T intern(String name) {
+        return entries.computeIfAbsent(key(name), key -> factory.apply(name));
+    }
+
+    T get(String name) {
+        return entries.get(key(name));
+    }
+
+    /**
+     * Moves the instance registered for {@code oldName} to {@code newName}. If {@code newName}
+     * is already registered, that instance stays the canonical one.
+     */
+    void rename(String oldName, String newName) {
+        T entry = entries.remove(key(oldName));
+        if (entry != null) {
+            entries.putIfAbsent(key(newName), entry);
+        }
+    }
+
+    T remove(String name) {
+        return entries.remove(key(name));
+    }
+
+    static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,82 @@
+package app.controllers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listed entries in the order they were added, found by case-insensitive name.
+ * <p>
+ * Each entry keeps the sequence number it was added under, and the order is a linked map over
+ * those numbers. Adding, removing and renaming are therefore hash operations however long the
+ * list gets, and a renamed entry keeps its place.
+ */
+final class NamedList<T> {
+    private record Entry<T>(long sequence, T value) {}
+
+    private final Map<Long, T> ordered = new LinkedHashMap<>();
+    private final Map<String, Entry<T>> byName = new HashMap<>();
+    private long nextSequence;
+
+    T get(String name) {
+        Entry<T> entry = byName.get(NameRegistry.key(name));
+        return entry != null ? entry.value() : null;
+    }
+
+    boolean contains(String name) {
+        return byName.containsKey(NameRegistry.key(name));
+    }
+
+    /**
+     * Appends {@code value} under {@code name}; false if the name is already listed.
+     */
+    boolean add(String name, T value) {
+        String key = NameRegistry.key(name);
+        if (byName.containsKey(key)) {
+            return false;
+        }
+        long sequence = nextSequence++;
+        byName.put(key, new Entry<>(sequence, value));
+        ordered.put(sequence, value);
+        return true;
+    }
+
+    /**
+     * Lists the entry for {@code oldName} under {@code newName} instead, in the same place;
+     * false if it is missing or {@code newName} belongs to another entry.
+     */
+    boolean rename(String oldName, String newName) {
+        String oldKey = NameRegistry.key(oldName);
+        String newKey = NameRegistry.key(newName);
+        Entry<T> entry = byName.get(oldKey);
+        if (entry == null || (!oldKey.equals(newKey) && byName.containsKey(newKey))) {
+            return false;
+        }
+        byName.remove(oldKey);
+        byName.put(newKey, entry);
+        return true;
+    }
+
+    T remove(String name) {
+        Entry<T> entry = byName.remove(NameRegistry.key(name));
+        if (entry == null) {
+            return null;
+        }
+        ordered.remove(entry.sequence());
+        return entry.value();
+    }
+
+    void clear() {
+        ordered.clear();
+        byName.clear();
+    }
+
+    /**
+     * Returns a copy of the entries in list order.
+     */
+    List<T> values() {
+        return new ArrayList<>(ordered.values());
+    }
+}
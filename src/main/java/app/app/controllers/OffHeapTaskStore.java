@@ -0,0 +1,119 @@
+package app.controllers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link TaskStore} that keeps the fixed-width task fields outside the Java heap, in one
+ * {@link MemorySegment} of {@value #ROW_BYTES}-byte rows: the status ordinal, the deadline as
+ * an epoch day, and the category and priority dictionary ids. Only ids, titles and
+ * descriptions remain on the heap, so the collector has far fewer objects to trace as the
+ * task count grows.
+ * <p>
+ * The rows can also be kept in a memory-mapped scratch file instead of anonymous memory, so
+ * the operating system can page them out. The file only backs the running store; snapshots
+ * and the journal remain the saved copy of the tasks.
+ */
+public final class OffHeapTaskStore extends RowTaskStore {
+    private static final int ROW_BYTES = 16;
+    private static final long STATUS_OFFSET = 0;
+    private static final long DEADLINE_OFFSET = 4;
+    private static final long CATEGORY_OFFSET = 8;
+    private static final long PRIORITY_OFFSET = 12;
+
+    private final FileChannel channel;
+    private MemorySegment rows;
+
+    /**
+     * Creates a store whose rows live in native memory.
+     */
+    public OffHeapTaskStore() {
+        this.channel = null;
+        clear();
+    }
+
+    /**
+     * Creates a store whose rows live in {@code scratchFile}, which is truncated now and
+     * deleted when the application exits.
+     */
+    public OffHeapTaskStore(Path scratchFile) throws IOException {
+        this.channel = FileChannel.open(scratchFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+        clear();
+    }
+
+    @Override
+    byte readStatus(int row) {
+        return rows.get(ValueLayout.JAVA_BYTE, (long) row * ROW_BYTES + STATUS_OFFSET);
+    }
+
+    @Override
+    void writeStatus(int row, byte status) {
+        rows.set(ValueLayout.JAVA_BYTE, (long) row * ROW_BYTES + STATUS_OFFSET, status);
+    }
+
+    @Override
+    int readDeadline(int row) {
+        return rows.get(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + DEADLINE_OFFSET);
+    }
+
+    @Override
+    void writeDeadline(int row, int epochDay) {
+        rows.set(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + DEADLINE_OFFSET, epochDay);
+    }
+
+    @Override
+    int readCategory(int row) {
+        return rows.get(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + CATEGORY_OFFSET);
+    }
+
+    @Override
+    void writeCategory(int row, int category) {
+        rows.set(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + CATEGORY_OFFSET, category);
+    }
+
+    @Override
+    int readPriority(int row) {
+        return rows.get(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + PRIORITY_OFFSET);
+    }
+
+    @Override
+    void writePriority(int row, int priority) {
+        rows.set(ValueLayout.JAVA_INT, (long) row * ROW_BYTES + PRIORITY_OFFSET, priority);
+    }
+
+    @Override
+    void allocateColumns(int capacity) {
+        rows = channel != null ? map(capacity) : Arena.ofAuto().allocate((long) capacity * ROW_BYTES, ROW_BYTES);
+    }
+
+    @Override
+    void growColumns(int capacity) {
+        MemorySegment grown = channel != null ? map(capacity) : Arena.ofAuto().allocate((long) capacity * ROW_BYTES, ROW_BYTES);
+        if (channel == null) {
+            // A mapping of the larger region already sees the rows written so far.
+            MemorySegment.copy(rows, 0, grown, 0, rows.byteSize());
+        }
+        // Segments from automatic arenas are freed once they are no longer reachable.
+        rows = grown;
+    }
+
+    @Override
+    void moveColumns(int from, int to) {
+        MemorySegment.copy(rows, (long) from * ROW_BYTES, rows, (long) to * ROW_BYTES, ROW_BYTES);
+    }
+
+    private MemorySegment map(int capacity) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * ROW_BYTES, Arena.ofAuto());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map task rows", e);
+        }
+    }
+}
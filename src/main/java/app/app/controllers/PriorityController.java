@@ -1,78 +1,138 @@
 package app.controllers;
 
 import app.models.Priority;
+import app.utils.Journal;
 import app.utils.JsonUtils;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class PriorityController {
-    private List<Priority> priorities;
+    // The listed priorities in the order they were added, by case-insensitive name.
+    private final NamedList<Priority> priorities = new NamedList<>();
+    // One Priority instance per name, shared by the list above and by every task using it.
+    private final NameRegistry<Priority> registry = new NameRegistry<>(Priority::new);
     private TaskController taskController;
+    private Journal journal;
+    private ChangeBus changeBus;
 
     public PriorityController(TaskController taskController) {
         this.taskController = taskController;
-        this.priorities = new ArrayList<>();
-        if (priorities.stream().noneMatch(p -> p.getName().equalsIgnoreCase("Default"))) {
-            priorities.add(Priority.defaultPriority());
+        addToList(Priority.defaultPriority().getName());
+        if (taskController != null) {
+            taskController.setPriorityRegistry(registry);
         }
     }
 
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void setChangeBus(ChangeBus changeBus) {
+        this.changeBus = changeBus;
+    }
+
     public void loadPriorities(String filePath) {
+        List<Priority> loaded;
         try {
-            priorities = new ArrayList<>(JsonUtils.readJsonFile(filePath, Priority[].class));
-            if (priorities.stream().noneMatch(p -> p.getName().equalsIgnoreCase("Default"))) {
-                priorities.add(Priority.defaultPriority());
-            }
-            System.out.println("Priorities loaded successfully.");
+            loaded = JsonUtils.readDataFile(filePath, Priority.class);
         } catch (IOException e) {
             System.out.println("Failed to load priorities: " + e.getMessage());
-            priorities = new ArrayList<>();
-            priorities.add(Priority.defaultPriority());
+            return;
         }
+        priorities.clear();
+        publishReload();
+        loaded.forEach(priority -> addToList(priority.getName()));
+        addToList(Priority.defaultPriority().getName());
+        System.out.println("Priorities loaded successfully.");
     }
 
-    public void savePriorities(String filePath) {
+    public boolean savePriorities(String filePath) {
         try {
-            JsonUtils.writeJsonFile(filePath, priorities);
+            JsonUtils.writeDataFile(filePath, priorities.values(), Priority.class);
             System.out.println("Priorities saved successfully.");
+            return true;
         } catch (IOException e) {
             System.out.println("Failed to save priorities: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void applyJournalEntry(Journal.Entry entry) throws IOException {
+        switch (entry.op()) {
+            case "put" -> {
+                addToList(entry.dataAs(Priority.class).getName());
+            }
+            case "rename" -> {
+                String from = entry.data().path("from").asText();
+                String to = entry.data().path("to").asText();
+                if (!"Default".equalsIgnoreCase(from) && renameInList(from, to)) {
+                    taskController.updateTasksWithModifiedPriority(from, to);
+                }
+            }
+            case "remove" -> {
+                String name = entry.data().asText();
+                if (!"Default".equalsIgnoreCase(name) && removeFromList(name)) {
+                    mergeIntoDefault(name);
+                }
+            }
+            default -> throw new IOException("Unknown priority journal operation: " + entry.op());
         }
     }
 
     
     public List<Priority> getPriorities() {
-        return new ArrayList<>(priorities); 
+        return priorities.values(); 
+    }
+
+    /**
+     * Returns copies of the listed priorities that later renames do not touch, for writing a
+     * snapshot on another thread.
+     */
+    public List<Priority> getPrioritySnapshot() {
+        return priorities.values().stream().map(priority -> new Priority(priority.getName())).toList();
     }
 
     
+    /**
+     * Returns the listed priority named {@code name}, ignoring case, or {@code null}.
+     */
+    public Priority getPriority(String name) {
+        return name != null ? priorities.get(name) : null;
+    }
+
     public boolean addPriority(String name) {
-        if (priorities.stream().anyMatch(p -> p.getName().equalsIgnoreCase(name))) {
+        Priority priority = addToList(name);
+        if (priority == null) {
             System.out.println("Priority already exists.");
             return false;
         }
-        priorities.add(new Priority(name));
+        if (journal != null) {
+            journal.append("priority", "put", priority);
+        }
         return true;
     }
 
     
     public boolean modifyPriority(String oldName, String newName) {
-        for (Priority p : priorities) {
-            if (p.getName().equalsIgnoreCase(oldName)) {
-                if (!"Default".equalsIgnoreCase(oldName)) { 
-                    p.setName(newName);
-                    taskController.updateTasksWithModifiedPriority(oldName, newName); 
-                    return true;
-                } else {
-                    System.out.println("Cannot modify the Default priority.");
-                    return false;
-                }
-            }
+        if (getPriority(oldName) == null) {
+            System.out.println("Priority not found.");
+            return false;
+        }
+        if ("Default".equalsIgnoreCase(oldName)) {
+            System.out.println("Cannot modify the Default priority.");
+            return false;
+        }
+        if (!renameInList(oldName, newName)) {
+            System.out.println("Priority already exists.");
+            return false;
+        }
+        if (journal != null) {
+            journal.append("priority", "rename", Map.of("from", oldName, "to", newName));
         }
-        System.out.println("Priority not found.");
-        return false;
+        taskController.updateTasksWithModifiedPriority(oldName, newName); 
+        return true;
     }
 
     public boolean deletePriority(String name) {
@@ -82,9 +142,12 @@ public class PriorityController {
             return false;
         }
 
-        boolean removed = priorities.removeIf(p -> p.getName().equalsIgnoreCase(name));
+        boolean removed = removeFromList(name);
         if (removed) {
-            taskController.updateTasksWithDeletedPriority(name); 
+            if (journal != null) {
+                journal.append("priority", "remove", name);
+            }
+            mergeIntoDefault(name);
             System.out.println("Priority '" + name + "' deleted. Associated tasks updated to 'Default'.");
         } else {
             System.out.println("Priority not found.");
@@ -92,7 +155,67 @@ public class PriorityController {
         return removed;
     }
 
+    // Tasks keep the deleted instance, which now resolves to Default.
+    private void mergeIntoDefault(String name) {
+        changeShared(() -> {
+            Priority deleted = registry.remove(name);
+            if (deleted != null) {
+                deleted.mergeInto(registry.intern("Default"));
+            }
+        });
+        taskController.updateTasksWithDeletedPriority(name);
+    }
+
+    // Adds the canonical priority for name unless one is already listed; null if it was.
+    private Priority addToList(String name) {
+        if (priorities.contains(name)) {
+            return null;
+        }
+        Priority priority = registry.intern(name);
+        priorities.add(name, priority);
+        publishReload();
+        return priority;
+    }
+
+    // Renames the listed priority in place; false if it is missing or newName is taken by another.
+    private boolean renameInList(String oldName, String newName) {
+        Priority priority = priorities.get(oldName);
+        if (priority == null || !priorities.rename(oldName, newName)) {
+            return false;
+        }
+        changeShared(() -> {
+            priority.setName(newName);
+            registry.rename(oldName, newName);
+        });
+        publishReload();
+        return true;
+    }
+
+    // Tasks share the instance with searches running on another thread, see TaskController#changeShared.
+    private void changeShared(Runnable change) {
+        if (taskController != null) {
+            taskController.changeShared(change);
+        } else {
+            change.run();
+        }
+    }
+
+    private boolean removeFromList(String name) {
+        if (priorities.remove(name) == null) {
+            return false;
+        }
+        publishReload();
+        return true;
+    }
+
+    // The list views are small, so any change to them is published as a reload.
+    private void publishReload() {
+        if (changeBus != null) {
+            changeBus.publish(ChangeBus.Topic.PRIORITIES, Change.RELOADED);
+        }
+    }
+
     public void printPriorities() {
-        priorities.forEach(System.out::println);
+        priorities.values().forEach(System.out::println);
     }
 }
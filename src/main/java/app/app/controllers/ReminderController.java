@@ -3,12 +3,22 @@ package app.controllers;
 
 import app.models.Reminder;
 import app.models.Task;
+import app.utils.Journal;
 import app.utils.JsonUtils;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 
 /**
  * Controller for managing reminders associated with tasks.
@@ -20,8 +30,18 @@ import java.util.List;
  */
 
 public class ReminderController {
-    private List<Reminder> reminders;
+    private final Map<UUID, Reminder> reminders;
+    private final Map<UUID, Set<Reminder>> remindersByTask;
+    private final Map<ReminderKey, Set<Reminder>> remindersByTaskAndDate;
+    private final NavigableMap<Long, Set<Reminder>> remindersByDate;
     private TaskController taskController;
+    private Journal journal;
+    private ChangeBus changeBus;
+
+    /**
+     * Composite key of a task ID and a reminder date.
+     */
+    private record ReminderKey(UUID taskId, LocalDate reminderDate) {}
 
 /**
      * Constructs a new ReminderController with an empty list of reminders.
@@ -32,37 +52,110 @@ public class ReminderController {
 
     public ReminderController(TaskController taskController) {
         this.taskController = taskController;
-        this.reminders = new ArrayList<>();
+        this.reminders = new LinkedHashMap<>();
+        this.remindersByTask = new HashMap<>();
+        this.remindersByTaskAndDate = new HashMap<>();
+        this.remindersByDate = new TreeMap<>();
+    }
+
+    /**
+     * Sets the journal that records reminder mutations.
+     *
+     * @param journal The journal to append to, or {@code null} to stop journaling.
+     */
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets the bus that reminder changes are published to.
+     *
+     * @param changeBus The bus to publish to, or {@code null} to publish nothing.
+     */
+
+    public void setChangeBus(ChangeBus changeBus) {
+        this.changeBus = changeBus;
     }
 
 
     /**
-     * Loads reminders from a JSON file.
+     * Loads reminders from a JSON file, dropping reminders whose date has already passed.
+     * If the file cannot be read, the current reminders are kept.
      *
      * @param filePath The path to the JSON file containing reminders.
      */
 
     public void loadReminders(String filePath) {
+        List<Reminder> loaded;
         try {
-            reminders = new ArrayList<>(JsonUtils.readJsonFile(filePath, Reminder[].class)); 
-            System.out.println("Reminders loaded successfully.");
+            loaded = JsonUtils.readDataFile(filePath, Reminder.class);
         } catch (IOException e) {
             System.out.println("Failed to load reminders: " + e.getMessage());
+            return;
+        }
+        reminders.clear();
+        remindersByTask.clear();
+        remindersByTaskAndDate.clear();
+        remindersByDate.clear();
+        LocalDate today = LocalDate.now();
+        int expiredCount = 0;
+        for (Reminder reminder : loaded) {
+            if (reminder.getReminderDate() != null && reminder.getReminderDate().isBefore(today)) {
+                expiredCount++;
+            } else {
+                indexReminder(reminder);
+            }
         }
+        System.out.println("Reminders loaded successfully. Deleted expired reminders: " + expiredCount);
+        publish(Change.RELOADED);
     }
 
 /**
      * Saves the current list of reminders to a JSON file.
      *
      * @param filePath The path to the JSON file where reminders will be saved.
+     * @return {@code true} if the reminders were saved, otherwise {@code false}.
      */
 
-    public void saveReminders(String filePath) {
+    public boolean saveReminders(String filePath) {
         try {
-            JsonUtils.writeJsonFile(filePath, reminders);
+            JsonUtils.writeDataFile(filePath, getReminders(), Reminder.class);
             System.out.println("Reminders saved successfully.");
+            return true;
         } catch (IOException e) {
             System.out.println("Failed to save reminders: " + e.getMessage());
+            return false;
+        }
+    }
+
+/**
+     * Applies a journaled reminder mutation without recording it again.
+     *
+     * @param entry The journal entry to apply.
+     * @throws IOException If the entry cannot be decoded.
+     */
+
+    public void applyJournalEntry(Journal.Entry entry) throws IOException {
+        switch (entry.op()) {
+            case "put" -> {
+                Reminder reminder = entry.dataAs(Reminder.class);
+                // Replacing the value of an existing id keeps its place in the insertion order.
+                Reminder previous = reminders.put(reminder.getId(), reminder);
+                if (previous != null) {
+                    unindexSecondary(previous);
+                }
+                indexSecondary(reminder);
+                publish(new Change(previous != null ? Change.Kind.UPDATED : Change.Kind.ADDED, reminder.getId()));
+            }
+            case "remove" -> {
+                Reminder reminder = reminders.get(UUID.fromString(entry.data().asText()));
+                if (reminder != null) {
+                    unindexReminder(reminder);
+                    publish(new Change(Change.Kind.REMOVED, reminder.getId()));
+                }
+            }
+            default -> throw new IOException("Unknown reminder journal operation: " + entry.op());
         }
     }
 /**
@@ -71,7 +164,30 @@ public class ReminderController {
      * @return A list of all reminders.
      */
     public List<Reminder> getReminders() {
-        return new ArrayList<>(reminders);
+        return new ArrayList<>(reminders.values());
+    }
+
+    /**
+     * Returns copies of all reminders, in the order of {@link #getReminders()}, that later edits
+     * do not touch, for writing a snapshot on another thread.
+     */
+    public List<Reminder> getReminderSnapshot() {
+        List<Reminder> copies = new ArrayList<>(reminders.size());
+        for (Reminder reminder : reminders.values()) {
+            copies.add(Reminder.restore(reminder.getId(), reminder.getTaskId(), reminder.getReminderDate(), reminder.getDescription()));
+        }
+        return copies;
+    }
+
+    /**
+     * Retrieves a reminder by its ID.
+     *
+     * @param reminderId The unique ID of the reminder.
+     * @return The reminder, or {@code null} if there is none.
+     */
+
+    public Reminder getReminderById(UUID reminderId) {
+        return reminders.get(reminderId);
     }
 
 
@@ -85,7 +201,7 @@ public class ReminderController {
      */
 
 
-    public boolean addReminder(String taskId, LocalDate reminderDate, String description) {
+    public boolean addReminder(UUID taskId, LocalDate reminderDate, String description) {
         Task task = taskController.getTaskById(taskId);
         if (task == null) {
             System.out.println("Task not found.");
@@ -102,7 +218,10 @@ public class ReminderController {
             return false;
         }
 
-        reminders.add(new Reminder(taskId, reminderDate, description));
+        Reminder reminder = new Reminder(taskId, reminderDate, description);
+        indexReminder(reminder);
+        journalPut(reminder);
+        publish(new Change(Change.Kind.ADDED, reminder.getId()));
         System.out.println("Added reminder for task: " + taskId);
         return true;
     }
@@ -118,23 +237,45 @@ public class ReminderController {
      * @return {@code true} if the reminder was successfully modified, otherwise {@code false}.
      */
 
-    public boolean modifyReminder(String taskId, LocalDate oldDate, LocalDate newDate, String newDescription) {
-        for (Reminder reminder : reminders) {
-            if (reminder.getTaskId().equals(taskId) && reminder.getReminderDate().equals(oldDate)) {
-                Task task = taskController.getTaskById(taskId);
-                if (task != null && isReminderValid(task, newDate)) {
-                    reminder.setReminderDate(newDate);
-                    reminder.setDescription(newDescription);
-                    System.out.println("Reminder updated.");
-                    return true;
-                } else {
-                    System.out.println("Invalid new reminder date for the task deadline.");
-                    return false;
-                }
-            }
+    public boolean modifyReminder(UUID taskId, LocalDate oldDate, LocalDate newDate, String newDescription) {
+        Set<Reminder> matches = remindersByTaskAndDate.get(new ReminderKey(taskId, oldDate));
+        if (matches == null) {
+            System.out.println("Reminder not found.");
+            return false;
         }
-        System.out.println("Reminder not found.");
-        return false;
+
+        Reminder reminder = matches.iterator().next();
+        Task task = taskController.getTaskById(taskId);
+        if (task != null && isReminderValid(task, newDate)) {
+            reindexReminder(reminder, newDate, newDescription);
+            System.out.println("Reminder updated.");
+            return true;
+        } else {
+            System.out.println("Invalid new reminder date for the task deadline.");
+            return false;
+        }
+    }
+
+/**
+     * Updates the date and description of a reminder identified by its ID.
+     * Unlike {@link #modifyReminder}, the new date is not checked against the task deadline.
+     *
+     * @param reminderId The unique ID of the reminder to update.
+     * @param newDate The new reminder date.
+     * @param newDescription The new description for the reminder.
+     * @return {@code true} if the reminder was found and updated, otherwise {@code false}.
+     */
+
+    public boolean updateReminder(UUID reminderId, LocalDate newDate, String newDescription) {
+        Reminder reminder = reminders.get(reminderId);
+        if (reminder == null) {
+            System.out.println("Reminder not found.");
+            return false;
+        }
+
+        reindexReminder(reminder, newDate, newDescription);
+        System.out.println("Reminder updated.");
+        return true;
     }
 
 /**
@@ -144,9 +285,13 @@ public class ReminderController {
      * @return {@code true} if the reminder was successfully deleted, otherwise {@code false}.
      */
 
-    public boolean deleteReminder(String reminderId) {
-        boolean removed = reminders.removeIf(r -> r.getId().equals(reminderId));
+    public boolean deleteReminder(UUID reminderId) {
+        Reminder reminder = reminders.get(reminderId);
+        boolean removed = reminder != null;
         if (removed) {
+            unindexReminder(reminder);
+            journalRemove(reminderId);
+            publish(new Change(Change.Kind.REMOVED, reminderId));
             System.out.println("Reminder deleted.");
         } else {
             System.out.println("Reminder not found.");
@@ -161,11 +306,31 @@ public class ReminderController {
      */
 
 
-    public void deleteRemindersForTask(String taskId) {
-        reminders.removeIf(r -> r.getTaskId().equals(taskId));
+    public void deleteRemindersForTask(UUID taskId) {
+        removeRemindersOfTask(taskId).forEach(reminder -> publish(new Change(Change.Kind.REMOVED, reminder.getId())));
         System.out.println("All reminders for task '" + taskId + "' have been deleted.");  
     }
 
+/**
+     * Deletes all reminders associated with any of the given tasks in a single pass.
+     *
+     * @param taskIds The IDs of the tasks whose reminders should be deleted.
+     */
+
+    public void deleteRemindersForTasks(Collection<UUID> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        boolean removed = false;
+        for (UUID taskId : taskIds) {
+            removed |= !removeRemindersOfTask(taskId).isEmpty();
+        }
+        if (removed) {
+            publish(Change.RELOADED);
+        }
+        System.out.println("All reminders for " + taskIds.size() + " tasks have been deleted.");
+    }
+
 /**
  * Checks if the reminder date is within a valid range for the task.
  * A reminder must be set between one month before the deadline and the deadline itself.
@@ -187,10 +352,32 @@ public class ReminderController {
     * @return A list of reminders for the specified task.
     */
 
-    public List<Reminder> getRemindersForTask(String taskId) {
-        return reminders.stream()
-                .filter(reminder -> reminder.getTaskId().equals(taskId))
-                .toList();
+    public List<Reminder> getRemindersForTask(UUID taskId) {
+        Set<Reminder> taskReminders = remindersByTask.get(taskId);
+        return taskReminders != null ? List.copyOf(taskReminders) : List.of();
+    }
+
+    /**
+    * Retrieves all reminders scheduled for a specific date.
+    *
+    * @param date The reminder date.
+    * @return A list of reminders due on the given date.
+    */
+
+    public List<Reminder> getRemindersDueOn(LocalDate date) {
+        Set<Reminder> dueReminders = remindersByDate.get(date.toEpochDay());
+        return dueReminders != null ? List.copyOf(dueReminders) : List.of();
+    }
+
+    /**
+    * Checks whether any reminder is scheduled for a specific date.
+    *
+    * @param date The reminder date.
+    * @return {@code true} if at least one reminder is due on the given date.
+    */
+
+    public boolean hasRemindersDueOn(LocalDate date) {
+        return remindersByDate.containsKey(date.toEpochDay());
     }
 
 
@@ -199,25 +386,121 @@ public class ReminderController {
      */
 
     public void cleanExpiredReminders() {
-        LocalDate today = LocalDate.now();
-    
-        List<Reminder> expiredReminders = reminders.stream()
-                .filter(reminder -> reminder.getReminderDate().isBefore(today))
-                .toList();
-    
-        if (!expiredReminders.isEmpty()) {
-            reminders.removeAll(expiredReminders);
-            System.out.println("Deleted expired reminders: " + expiredReminders.size());
+        NavigableMap<Long, Set<Reminder>> expiredBuckets = remindersByDate.headMap(LocalDate.now().toEpochDay(), false);
+
+        int expiredCount = 0;
+        for (Set<Reminder> bucket : expiredBuckets.values()) {
+            for (Reminder reminder : bucket) {
+                reminders.remove(reminder.getId());
+                removeFromIndex(remindersByTask, reminder.getTaskId(), reminder);
+                removeFromIndex(remindersByTaskAndDate, new ReminderKey(reminder.getTaskId(), reminder.getReminderDate()), reminder);
+            }
+            expiredCount += bucket.size();
+        }
+        expiredBuckets.clear();
+
+        if (expiredCount > 0) {
+            publish(Change.RELOADED);
+            System.out.println("Deleted expired reminders: " + expiredCount);
         } else {
             System.out.println("No expired reminders to delete.");
         }
     }
     
+    private void indexReminder(Reminder reminder) {
+        reminders.put(reminder.getId(), reminder);
+        indexSecondary(reminder);
+    }
+
+    private void unindexReminder(Reminder reminder) {
+        reminders.remove(reminder.getId());
+        unindexSecondary(reminder);
+    }
+
+    // Only the secondary indexes; the id map is updated by the callers so edits keep the order.
+    private void indexSecondary(Reminder reminder) {
+        remindersByTask.computeIfAbsent(reminder.getTaskId(), id -> new LinkedHashSet<>()).add(reminder);
+        indexDate(reminder);
+    }
+
+    private void unindexSecondary(Reminder reminder) {
+        removeFromIndex(remindersByTask, reminder.getTaskId(), reminder);
+        unindexDate(reminder);
+    }
+
+    private void indexDate(Reminder reminder) {
+        if (reminder.getReminderDate() != null) {
+            remindersByTaskAndDate.computeIfAbsent(new ReminderKey(reminder.getTaskId(), reminder.getReminderDate()), key -> new LinkedHashSet<>()).add(reminder);
+            remindersByDate.computeIfAbsent(reminder.getReminderDate().toEpochDay(), day -> new LinkedHashSet<>()).add(reminder);
+        }
+    }
+
+    private void unindexDate(Reminder reminder) {
+        if (reminder.getReminderDate() != null) {
+            removeFromIndex(remindersByTaskAndDate, new ReminderKey(reminder.getTaskId(), reminder.getReminderDate()), reminder);
+            removeFromIndex(remindersByDate, reminder.getReminderDate().toEpochDay(), reminder);
+        }
+    }
+
+    // An edit can only move the date, so the reminder keeps its place everywhere else.
+    private void reindexReminder(Reminder reminder, LocalDate newDate, String newDescription) {
+        unindexDate(reminder);
+        reminder.setReminderDate(newDate);
+        reminder.setDescription(newDescription);
+        indexDate(reminder);
+        journalPut(reminder);
+        publish(new Change(Change.Kind.UPDATED, reminder.getId()));
+    }
+
+    private Set<Reminder> removeRemindersOfTask(UUID taskId) {
+        Set<Reminder> taskReminders = remindersByTask.remove(taskId);
+        if (taskReminders == null) {
+            return Set.of();
+        }
+        for (Reminder reminder : taskReminders) {
+            reminders.remove(reminder.getId());
+            journalRemove(reminder.getId());
+            if (reminder.getReminderDate() != null) {
+                removeFromIndex(remindersByTaskAndDate, new ReminderKey(taskId, reminder.getReminderDate()), reminder);
+                removeFromIndex(remindersByDate, reminder.getReminderDate().toEpochDay(), reminder);
+            }
+        }
+        return taskReminders;
+    }
+
+    private void publish(Change change) {
+        if (changeBus != null) {
+            changeBus.publish(ChangeBus.Topic.REMINDERS, change);
+        }
+    }
+
+    private void journalPut(Reminder reminder) {
+        if (journal != null) {
+            journal.append("reminder", "put", reminder);
+        }
+    }
+
+    private void journalRemove(UUID reminderId) {
+        if (journal != null) {
+            journal.append("reminder", "remove", reminderId);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Reminder>> index, K key, Reminder reminder) {
+        Set<Reminder> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(reminder);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
 /**
      * Prints all reminders to the console.
      */
 
     public void printReminders() {
-        reminders.forEach(System.out::println);
+        reminders.values().forEach(System.out::println);
     }
 }
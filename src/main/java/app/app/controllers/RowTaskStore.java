@@ -0,0 +1,563 @@
+package app.controllers;
+
+import app.models.Category;
+import app.models.Priority;
+import app.models.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Base for {@link TaskStore}s that keep one row per task instead of one object per task.
+ * Statuses are ordinals, deadlines are epoch days, and categories and priorities are ids into
+ * small dictionaries; subclasses decide where these fixed-width fields live. Ids, titles and
+ * descriptions are kept here in plain arrays. Status and deadline counts are kept up to date
+ * as rows are written; overdue sweeps and category lookups are loops over the rows.
+ * <p>
+ * Tasks handed out are short-lived views over a row: every call creates a new one and none
+ * is kept, so the store holds no object per task. Reads and writes go straight to the row,
+ * and a view finds its row again after compaction has moved it. The task returned by
+ * {@link #remove} is detached: it keeps a copy of its last values and no longer touches the
+ * store. Other views of a removed task read as empty.
+ * <p>
+ * Removed rows are left as holes so that insertion order is kept; the rows are compacted
+ * once holes make up more than half of them.
+ */
+abstract class RowTaskStore implements TaskStore {
+    private static final byte NO_STATUS = -1;
+    private static final byte REMOVED = -2;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_CATEGORY = -1;
+    private static final int MIN_HOLES_TO_COMPACT = 64;
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    private UUID[] ids;
+    private String[] titles;
+    private String[] descriptions;
+    private int rowCount;
+    private int holes;
+    private final Map<UUID, Integer> rowsById = new HashMap<>();
+    // Number of live rows per status, indexed by Task.Status ordinal.
+    private final long[] statusCounts = new long[STATUSES.length];
+    // Number of live rows per deadline, by epoch day.
+    private final NavigableMap<Long, Integer> dueCounts = new TreeMap<>();
+
+    // Category dictionary: id -> shared Category, and lower-cased name -> id.
+    private final List<Category> categoryDictionary = new ArrayList<>();
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    // Priority dictionary: id -> shared Priority, and lower-cased name -> id.
+    private final List<Priority> priorityDictionary = new ArrayList<>();
+    private final Map<String, Integer> priorityIds = new HashMap<>();
+
+    abstract byte readStatus(int row);
+
+    abstract void writeStatus(int row, byte status);
+
+    abstract int readDeadline(int row);
+
+    abstract void writeDeadline(int row, int epochDay);
+
+    abstract int readCategory(int row);
+
+    abstract void writeCategory(int row, int category);
+
+    abstract int readPriority(int row);
+
+    abstract void writePriority(int row, int priority);
+
+    /**
+     * Replaces the fixed-width columns with empty ones holding {@code capacity} rows.
+     * Subclasses call {@link #clear()} from their constructor to set up the first columns.
+     */
+    abstract void allocateColumns(int capacity);
+
+    /**
+     * Grows the fixed-width columns to {@code capacity} rows, keeping their contents.
+     */
+    abstract void growColumns(int capacity);
+
+    abstract void moveColumns(int from, int to);
+
+    @Override
+    public void clear() {
+        allocate(16);
+        rowCount = 0;
+        holes = 0;
+        rowsById.clear();
+        Arrays.fill(statusCounts, 0);
+        dueCounts.clear();
+        categoryDictionary.clear();
+        categoryIds.clear();
+        priorityDictionary.clear();
+        priorityIds.clear();
+    }
+
+    @Override
+    public Task put(Task task) {
+        Integer existing = rowsById.get(task.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            row = appendRow(task.getId());
+        }
+
+        // Read everything first: task may be the view of this very row.
+        String title = task.getTitle();
+        String description = task.getDescription();
+        Category category = task.getCategory();
+        Priority priority = task.getPriorityRef();
+        LocalDate deadline = task.getDeadline();
+        Task.Status status = task.getStatus();
+
+        titles[row] = title;
+        descriptions[row] = description;
+        writeCategory(row, categoryId(category));
+        writePriority(row, priorityId(priority));
+        updateDeadline(row, encodeDate(deadline));
+        updateStatus(row, encodeStatus(status));
+        return view(row);
+    }
+
+    @Override
+    public Task get(UUID id) {
+        Integer row = rowsById.get(id);
+        return row != null ? view(row) : null;
+    }
+
+    @Override
+    public String title(UUID id) {
+        Integer row = rowsById.get(id);
+        if (row == null) {
+            return null;
+        }
+        return titles[row] != null ? titles[row] : "";
+    }
+
+    @Override
+    public Task remove(UUID id) {
+        Integer row = rowsById.get(id);
+        if (row == null) {
+            return null;
+        }
+        Task removed = removeRow(row);
+        compactIfSparse();
+        return removed;
+    }
+
+    @Override
+    public List<Task> removeCategory(String categoryName) {
+        List<Task> removed = new ArrayList<>();
+        // Drop the key too: a category added later under this name is a new instance.
+        Integer category = categoryIds.remove(NameRegistry.key(categoryName));
+        if (category == null) {
+            return removed;
+        }
+
+        for (int row = 0; row < rowCount; row++) {
+            if (readCategory(row) == category && readStatus(row) != REMOVED) {
+                removed.add(removeRow(row));
+            }
+        }
+        compactIfSparse();
+        return removed;
+    }
+
+    @Override
+    public void renameCategory(String oldName, String newName) {
+        // Rows hold the shared category, which already has the new name; only re-key it.
+        Integer oldId = categoryIds.remove(NameRegistry.key(oldName));
+        if (oldId == null) {
+            return;
+        }
+        Integer newId = categoryIds.putIfAbsent(NameRegistry.key(newName), oldId);
+        if (newId != null && !newId.equals(oldId)) {
+            // The new name already has an entry: move the rows over to it.
+            for (int row = 0; row < rowCount; row++) {
+                if (readCategory(row) == oldId && readStatus(row) != REMOVED) {
+                    writeCategory(row, newId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setCategory(Task task, Category category) {
+        task.setCategory(category);
+    }
+
+    @Override
+    public void setDeadline(Task task, LocalDate deadline) {
+        task.setDeadline(deadline);
+    }
+
+    @Override
+    public void setStatus(Task task, Task.Status status) {
+        task.setStatus(status);
+    }
+
+    @Override
+    public void renamePriority(String oldName, String newName) {
+        Integer id = priorityIds.remove(NameRegistry.key(oldName));
+        if (id != null) {
+            priorityIds.putIfAbsent(NameRegistry.key(newName), id);
+        }
+    }
+
+    @Override
+    public void mergePriority(String deletedName, String replacementName) {
+        // Rows keep the deleted entry, which resolves to its replacement on read.
+        priorityIds.remove(NameRegistry.key(deletedName));
+    }
+
+    @Override
+    public void markOverdue(long todayEpochDay) {
+        byte completed = (byte) Task.Status.COMPLETED.ordinal();
+        byte delayed = (byte) Task.Status.DELAYED.ordinal();
+        for (int row = 0; row < rowCount; row++) {
+            int deadline = readDeadline(row);
+            byte status = readStatus(row);
+            if (deadline != NO_DATE && deadline < todayEpochDay && status != completed && status != REMOVED) {
+                updateStatus(row, delayed);
+            }
+        }
+    }
+
+    @Override
+    public List<Task> inCategory(String categoryName) {
+        Integer category = categoryIds.get(NameRegistry.key(categoryName));
+        return category != null ? rowsInCategory(category) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Task> all() {
+        List<Task> all = new ArrayList<>(rowCount - holes);
+        for (int row = 0; row < rowCount; row++) {
+            if (readStatus(row) != REMOVED) {
+                all.add(view(row));
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public List<UUID> ids() {
+        List<UUID> all = new ArrayList<>(rowCount - holes);
+        for (int row = 0; row < rowCount; row++) {
+            if (readStatus(row) != REMOVED) {
+                all.add(ids[row]);
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public int size() {
+        return rowCount - holes;
+    }
+
+    @Override
+    public long countByStatus(Task.Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    @Override
+    public long countDueBetween(long fromEpochDay, long toEpochDay) {
+        long due = 0;
+        for (int count : dueCounts.subMap(fromEpochDay, true, toEpochDay, true).values()) {
+            due += count;
+        }
+        return due;
+    }
+
+    private List<Task> rowsInCategory(int category) {
+        List<Task> matches = new ArrayList<>();
+        for (int row = 0; row < rowCount; row++) {
+            if (readCategory(row) == category && readStatus(row) != REMOVED) {
+                matches.add(view(row));
+            }
+        }
+        return matches;
+    }
+
+    private Row view(int row) {
+        return new Row(row);
+    }
+
+    private int appendRow(UUID id) {
+        if (rowCount == ids.length) {
+            grow(rowCount + (rowCount >> 1));
+        }
+        int row = rowCount++;
+        ids[row] = id;
+        rowsById.put(id, row);
+        // Fresh rows may hold stale bytes; these writes bypass the counts on purpose.
+        writeStatus(row, NO_STATUS);
+        writeDeadline(row, NO_DATE);
+        return row;
+    }
+
+    private Task removeRow(int row) {
+        Row removed = new Row(row);
+        removed.detach();
+        rowsById.remove(ids[row]);
+        ids[row] = null;
+        titles[row] = null;
+        descriptions[row] = null;
+        updateStatus(row, REMOVED);
+        updateDeadline(row, NO_DATE);
+        writeCategory(row, NO_CATEGORY);
+        holes++;
+        return removed;
+    }
+
+    // Status and deadline changes go through these two, so the counts follow the rows.
+    private void updateStatus(int row, byte status) {
+        countStatus(readStatus(row), -1);
+        writeStatus(row, status);
+        countStatus(status, 1);
+    }
+
+    private void updateDeadline(int row, int epochDay) {
+        countDeadline(readDeadline(row), -1);
+        writeDeadline(row, epochDay);
+        countDeadline(epochDay, 1);
+    }
+
+    private void countStatus(byte status, int delta) {
+        // Missing and removed statuses are negative and not counted.
+        if (status >= 0) {
+            statusCounts[status] += delta;
+        }
+    }
+
+    private void countDeadline(int epochDay, int delta) {
+        if (epochDay != NO_DATE) {
+            dueCounts.merge((long) epochDay, delta, (count, change) -> count + change != 0 ? count + change : null);
+        }
+    }
+
+    private void compactIfSparse() {
+        if (holes < MIN_HOLES_TO_COMPACT || holes * 2 < rowCount) {
+            return;
+        }
+
+        int live = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (readStatus(row) == REMOVED) {
+                continue;
+            }
+            if (row != live) {
+                ids[live] = ids[row];
+                titles[live] = titles[row];
+                descriptions[live] = descriptions[row];
+                moveColumns(row, live);
+                rowsById.put(ids[live], live);
+            }
+            live++;
+        }
+        // Clear the tail so the moved strings can be collected.
+        Arrays.fill(ids, live, rowCount, null);
+        Arrays.fill(titles, live, rowCount, null);
+        Arrays.fill(descriptions, live, rowCount, null);
+        rowCount = live;
+        holes = 0;
+    }
+
+    private void allocate(int capacity) {
+        ids = new UUID[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        allocateColumns(capacity);
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        growColumns(capacity);
+    }
+
+    private int categoryId(Category category) {
+        if (category == null || category.getName() == null) {
+            return NO_CATEGORY;
+        }
+        return categoryIds.computeIfAbsent(NameRegistry.key(category.getName()), key -> {
+            categoryDictionary.add(category);
+            return categoryDictionary.size() - 1;
+        });
+    }
+
+    private int priorityId(Priority priority) {
+        return priorityIds.computeIfAbsent(NameRegistry.key(priority.getName()), key -> {
+            priorityDictionary.add(priority);
+            return priorityDictionary.size() - 1;
+        });
+    }
+
+    private static int encodeDate(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : NO_DATE;
+    }
+
+    private static LocalDate decodeDate(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private static byte encodeStatus(Task.Status status) {
+        return status != null ? (byte) status.ordinal() : NO_STATUS;
+    }
+
+    /**
+     * A task backed by one row of the store. Once detached, it falls back to the fields
+     * inherited from {@link Task}.
+     */
+    private final class Row extends Task {
+        // Where the task was last seen; -1 once detached or removed.
+        private int row;
+
+        Row(int row) {
+            super(ids[row], null, null, null, priorityDictionary.get(readPriority(row)), null, null);
+            this.row = row;
+        }
+
+        void detach() {
+            super.setTitle(getTitle());
+            super.setDescription(getDescription());
+            super.setCategory(getCategory());
+            super.setPriorityRef(getPriorityRef());
+            super.setDeadline(getDeadline());
+            super.setStatus(getStatus());
+            row = -1;
+        }
+
+        // Compaction moves rows, so check that the row still holds this task before using it.
+        private int row() {
+            if (row >= 0 && (row >= rowCount || ids[row] != getId())) {
+                Integer moved = rowsById.get(getId());
+                row = moved != null ? moved : -1;
+            }
+            return row;
+        }
+
+        @Override
+        public String getTitle() {
+            int row = row();
+            return row < 0 ? super.getTitle() : titles[row];
+        }
+
+        @Override
+        public void setTitle(String title) {
+            int row = row();
+            if (row < 0) {
+                super.setTitle(title);
+            } else {
+                titles[row] = title;
+            }
+        }
+
+        @Override
+        public String getDescription() {
+            int row = row();
+            return row < 0 ? super.getDescription() : descriptions[row];
+        }
+
+        @Override
+        public void setDescription(String description) {
+            int row = row();
+            if (row < 0) {
+                super.setDescription(description);
+            } else {
+                descriptions[row] = description;
+            }
+        }
+
+        @Override
+        public Category getCategory() {
+            int row = row();
+            if (row < 0) {
+                return super.getCategory();
+            }
+            int category = readCategory(row);
+            return category != NO_CATEGORY ? categoryDictionary.get(category) : null;
+        }
+
+        @Override
+        public void setCategory(Category category) {
+            int row = row();
+            if (row < 0) {
+                super.setCategory(category);
+            } else {
+                writeCategory(row, categoryId(category));
+            }
+        }
+
+        @Override
+        public void setPriority(String priority) {
+            int row = row();
+            if (row < 0) {
+                super.setPriority(priority);
+            } else {
+                writePriority(row, priorityId(new Priority(priority == null || priority.isEmpty() ? "Default" : priority)));
+            }
+        }
+
+        @Override
+        public Priority getPriorityRef() {
+            int row = row();
+            return row < 0 ? super.getPriorityRef() : priorityDictionary.get(readPriority(row)).resolve();
+        }
+
+        @Override
+        public void setPriorityRef(Priority priority) {
+            int row = row();
+            if (row < 0) {
+                super.setPriorityRef(priority);
+            } else {
+                writePriority(row, priorityId(priority));
+            }
+        }
+
+        @Override
+        public LocalDate getDeadline() {
+            int row = row();
+            return row < 0 ? super.getDeadline() : decodeDate(readDeadline(row));
+        }
+
+        @Override
+        public void setDeadline(LocalDate deadline) {
+            int row = row();
+            if (row < 0) {
+                super.setDeadline(deadline);
+            } else {
+                updateDeadline(row, encodeDate(deadline));
+            }
+        }
+
+        @Override
+        public Status getStatus() {
+            int row = row();
+            if (row < 0) {
+                return super.getStatus();
+            }
+            byte status = readStatus(row);
+            return status != NO_STATUS ? STATUSES[status] : null;
+        }
+
+        @Override
+        public void setStatus(Status status) {
+            int row = row();
+            if (row < 0) {
+                super.setStatus(status);
+            } else {
+                updateStatus(row, encodeStatus(status));
+            }
+        }
+    }
+}
@@ -1,177 +1,810 @@
 package app.controllers;
 
-import app.ReminderManagementPane;
+import app.models.Category;
+import app.models.Priority;
 import app.models.Task;
+import app.utils.Journal;
 import app.utils.JsonUtils;
 
 import java.io.IOException;
+import java.text.CollationKey;
+import java.text.Collator;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class TaskController {
-    private List<Task> tasks;
+    /**
+     * The task fields {@link #sortIds} can order by.
+     */
+    public enum SortKey { TITLE, DEADLINE, STATUS, PRIORITY, CATEGORY, DESCRIPTION }
+
+    private final TaskStore store;
     private ReminderController reminderController;
+    private Journal journal;
+    // Canonical categories and priorities; CategoryController and PriorityController install theirs.
+    private NameRegistry<Category> categoryRegistry = new NameRegistry<>(Category::new);
+    private NameRegistry<Priority> priorityRegistry = new NameRegistry<>(Priority::new);
+    // Substring search indexes. Titles are indexed on the first title search; the category and
+    // priority instances in use are indexed as tasks start referring to them.
+    private TrigramIndex<UUID> titleIndex;
+    private final TrigramIndex<Category> categoryNameIndex = new TrigramIndex<>(new IdentityHashMap<>(), Category::getName);
+    private final TrigramIndex<Priority> priorityNameIndex = new TrigramIndex<>(new IdentityHashMap<>(), Priority::getName);
+    // Held for writing by every mutation, so that searchIds() can run on a background thread.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ChangeBus changeBus;
 
     public TaskController(ReminderController reminderController) {
-        this.tasks = new ArrayList<>();
+        this(reminderController, new IndexedTaskStore());
+    }
+
+    public TaskController(ReminderController reminderController, TaskStore store) {
+        this.store = store;
         this.reminderController = reminderController;
     }
 
+    public void setReminderController(ReminderController reminderController) {
+        this.reminderController = reminderController;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    void setCategoryRegistry(NameRegistry<Category> categoryRegistry) {
+        this.categoryRegistry = categoryRegistry;
+    }
+
+    void setPriorityRegistry(NameRegistry<Priority> priorityRegistry) {
+        this.priorityRegistry = priorityRegistry;
+    }
+
+    /**
+     * Sets the bus that task changes are published to, or {@code null} to publish none.
+     */
+    public void setChangeBus(ChangeBus changeBus) {
+        this.changeBus = changeBus;
+    }
+
     public void loadTasks(String filePath) {
+        // Read the whole file before touching the store, so a bad file leaves the current tasks.
+        List<Task> loaded;
         try {
-            tasks = new ArrayList<>(JsonUtils.readJsonFile(filePath, Task[].class));  
-            System.out.println("Tasks loaded successfully.");
+            loaded = JsonUtils.readDataFile(filePath, Task.class);
         } catch (IOException e) {
             System.out.println("Failed to load tasks: " + e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            store.clear();
+            resetSearchIndexes();
+            // Overdue tasks are marked while loading instead of in a separate sweep.
+            LocalDate today = LocalDate.now();
+            for (Task task : loaded) {
+                if (task.getDeadline() != null && task.getDeadline().isBefore(today) && task.getStatus() != Task.Status.COMPLETED) {
+                    task.setStatus(Task.Status.DELAYED);
+                }
+                store.put(canonicalize(task));
+            }
+            System.out.println("Tasks loaded successfully.");
+        } finally {
+            publish(Change.RELOADED);
+            lock.writeLock().unlock();
         }
     }
-    public void saveTasks(String filePath) {
+    public boolean saveTasks(String filePath) {
         try {
-            JsonUtils.writeJsonFile(filePath, tasks);
+            JsonUtils.writeDataFile(filePath, getTaskSnapshot(), Task.class);
             System.out.println("Tasks saved successfully.");
+            return true;
         } catch (IOException e) {
             System.out.println("Failed to save tasks: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void applyJournalEntry(Journal.Entry entry) throws IOException {
+        lock.writeLock().lock();
+        try {
+            switch (entry.op()) {
+                case "put" -> {
+                    Task task = canonicalize(entry.dataAs(Task.class));
+                    boolean existed = store.get(task.getId()) != null;
+                    indexTitle(store.put(task));
+                    publish(new Change(existed ? Change.Kind.UPDATED : Change.Kind.ADDED, task.getId()));
+                }
+                case "remove" -> {
+                    UUID taskId = UUID.fromString(entry.data().asText());
+                    if (store.remove(taskId) != null) {
+                        unindexTitle(taskId);
+                        publish(new Change(Change.Kind.REMOVED, taskId));
+                    }
+                }
+                default -> throw new IOException("Unknown task journal operation: " + entry.op());
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
 
 
-    public void addTask(Task task) {
-        tasks.add(task);
+    public Task addTask(Task task) {
+        lock.writeLock().lock();
+        try {
+            Task stored = store.put(canonicalize(task));
+            indexTitle(stored);
+            journalPut(stored);
+            publish(new Change(Change.Kind.ADDED, stored.getId()));
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public void updateTasksWithModifiedCategory(String oldCategory, String newCategory) {
-        tasks.forEach(task -> {
-            if (task.getCategory() != null && task.getCategory().getName().equalsIgnoreCase(oldCategory)) {
-                task.getCategory().setName(newCategory);
+        lock.writeLock().lock();
+        try {
+            // The shared category is already renamed; the category journal entry covers the tasks.
+            store.renameCategory(oldCategory, newCategory);
+            Category renamed = categoryRegistry.get(newCategory);
+            if (renamed != null) {
+                categoryNameIndex.put(renamed, renamed.getName());
             }
-        });
+            publish(Change.RELOADED);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
-    public List<String> deleteTasksByCategory(String categoryName) {
-        List<Task> tasksToRemove = new ArrayList<>();
-        List<String> deletedTaskIds = new ArrayList<>();
-    
-        
-        tasks.forEach(task -> {
-            if (task.getCategory() != null && task.getCategory().getName().equalsIgnoreCase(categoryName)) {
-                tasksToRemove.add(task);
+    public boolean updateTaskCategory(UUID taskId, Category category) {
+        lock.writeLock().lock();
+        try {
+            Task task = store.get(taskId);
+            if (task == null) {
+                System.out.println("Task not found.");
+                return false;
             }
-        });
-    
-        
-        tasksToRemove.forEach(task -> {
-            if (deleteTask(task.getId())) {
-                deletedTaskIds.add(task.getId()); 
+
+            store.setCategory(task, category != null && category.getName() != null ? indexName(categoryRegistry.intern(category.getName())) : category);
+            journalPut(task);
+            publish(new Change(Change.Kind.UPDATED, taskId));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean updateTaskDeadline(UUID taskId, LocalDate deadline) {
+        lock.writeLock().lock();
+        try {
+            Task task = store.get(taskId);
+            if (task == null) {
+                System.out.println("Task not found.");
+                return false;
             }
-        });
-    
-        System.out.println("Tasks and associated reminders for category '" + categoryName + "' have been deleted.");
-        return deletedTaskIds; 
+
+            store.setDeadline(task, deadline);
+            journalPut(task);
+            publish(new Change(Change.Kind.UPDATED, taskId));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
-    
 
-    public boolean deleteTask(String taskId) {
-        Task task = getTaskById(taskId);
-        if (task == null) {
-            System.out.println("Task not found.");
-            return false;
+    public boolean updateTaskDetails(UUID taskId, String title, String description, String priority) {
+        lock.writeLock().lock();
+        try {
+            Task task = store.get(taskId);
+            if (task == null) {
+                System.out.println("Task not found.");
+                return false;
+            }
+
+            task.setTitle(title);
+            task.setDescription(description);
+            task.setPriorityRef(indexName(priorityRegistry.intern(priority != null && !priority.isEmpty() ? priority : "Default")));
+            indexTitle(task);
+            journalPut(task);
+            publish(new Change(Change.Kind.UPDATED, taskId));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
         }
+    }
 
-        tasks.remove(task);
-        reminderController.deleteRemindersForTask(taskId);
-        System.out.println("Task and its associated reminders have been deleted.");
-        return true;
+    public List<UUID> deleteTasksByCategory(String categoryName) {
+        lock.writeLock().lock();
+        try {
+            List<Task> tasksToRemove = store.removeCategory(categoryName);
+            List<UUID> deletedTaskIds = new ArrayList<>();
+            if (tasksToRemove.isEmpty()) {
+                System.out.println("No tasks found for category '" + categoryName + "'.");
+                return deletedTaskIds;
+            }
+
+            tasksToRemove.forEach(task -> {
+                unindexTitle(task.getId());
+                journalRemove(task.getId());
+                deletedTaskIds.add(task.getId());
+            });
+            reminderController.deleteRemindersForTasks(deletedTaskIds);
+            publish(Change.RELOADED);
+
+            System.out.println("Tasks and associated reminders for category '" + categoryName + "' have been deleted.");
+            return deletedTaskIds; 
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+
+    public boolean deleteTask(UUID taskId) {
+        lock.writeLock().lock();
+        try {
+            if (store.remove(taskId) == null) {
+                System.out.println("Task not found.");
+                return false;
+            }
+
+            unindexTitle(taskId);
+            journalRemove(taskId);
+            reminderController.deleteRemindersForTask(taskId);
+            publish(new Change(Change.Kind.REMOVED, taskId));
+            System.out.println("Task and its associated reminders have been deleted.");
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
 
     public void updateTasksWithModifiedPriority(String oldPriority, String newPriority) {
-        tasks.forEach(task -> {
-            if (task.getPriority().equalsIgnoreCase(oldPriority)) {
-                task.setPriority(newPriority);
+        lock.writeLock().lock();
+        try {
+            store.renamePriority(oldPriority, newPriority);
+            Priority renamed = priorityRegistry.get(newPriority);
+            if (renamed != null) {
+                priorityNameIndex.put(renamed, renamed.getName());
             }
-        });
+            publish(Change.RELOADED);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
     
 
     public void updateTasksWithDeletedPriority(String deletedPriority) {
-        System.out.println("updateTasksWithDeletedPriority called for: " + deletedPriority);
-        tasks.forEach(task -> {
-            if (task.getPriority().equalsIgnoreCase(deletedPriority)) {
-                task.setPriority("Default"); 
-            }
-        });
-        System.out.println("Tasks with priority '" + deletedPriority + "' updated to 'Default'.");
+        lock.writeLock().lock();
+        try {
+            System.out.println("updateTasksWithDeletedPriority called for: " + deletedPriority);
+            store.mergePriority(deletedPriority, "Default");
+            // The merged tasks now resolve to Default, which has to be searchable even if no task used it yet.
+            indexName(priorityRegistry.intern("Default"));
+            System.out.println("Tasks with priority '" + deletedPriority + "' updated to 'Default'.");
+            publish(Change.RELOADED);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
     
 
-    public boolean updateTaskStatus(String taskId, Task.Status newStatus) {
-        Task task = getTaskById(taskId);
-        if (task == null) {
-            System.out.println("Task not found.");
-            return false;
-        }
+    public boolean updateTaskStatus(UUID taskId, Task.Status newStatus) {
+        lock.writeLock().lock();
+        try {
+            Task task = getTaskById(taskId);
+            if (task == null) {
+                System.out.println("Task not found.");
+                return false;
+            }
 
-        task.setStatus(newStatus);
+            store.setStatus(task, newStatus);
+            journalPut(task);
 
-        if (newStatus == Task.Status.COMPLETED) {
-            reminderController.deleteRemindersForTask(taskId);  
-            System.out.println("Task marked as Completed. All associated reminders have been deleted.");
+            if (newStatus == Task.Status.COMPLETED) {
+                reminderController.deleteRemindersForTask(taskId);  
+                System.out.println("Task marked as Completed. All associated reminders have been deleted.");
+            }
+            publish(new Change(Change.Kind.UPDATED, taskId));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return true;
     }
 
     public void updateOverdueTasks() {
-    LocalDate today = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            store.markOverdue(LocalDate.now().toEpochDay());
+            publish(Change.RELOADED);
 
-    tasks.forEach(task -> {
-    if (task.getDeadline() != null && task.getDeadline().isBefore(today) && task.getStatus() != Task.Status.COMPLETED) {
-            task.setStatus(Task.Status.DELAYED);
+            System.out.println("Overdue tasks have been updated to DELAYED.");
+        } finally {
+            lock.writeLock().unlock();
         }
-    });
+    }
 
-    System.out.println("Overdue tasks have been updated to DELAYED.");
-}
 
+    /**
+     * Returns the title of the task, empty if it has none, or {@code null} if there is no such
+     * task. Cheaper than {@link #getTaskById} on stores that keep tasks as rows.
+     */
+    public String getTaskTitle(UUID id) {
+        return store.title(id);
+    }
 
-    public Task getTaskById(String id) {
-        return tasks.stream()
-                .filter(task -> task.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public Task getTaskById(UUID id) {
+        return store.get(id);
     }
 
 
+    public List<Task> getTasksByCategory(String categoryName) {
+        return store.inCategory(categoryName);
+    }
+
     public List<Task> getTasks() {
-        return tasks;
+        return store.all();
+    }
+
+    /**
+     * Returns copies of all tasks, in the order of {@link #getTasks()}, that later edits do not
+     * touch, for writing a snapshot on another thread. Each category and priority is copied
+     * once, so a rename during the write cannot reach the copies either.
+     */
+    public List<Task> getTaskSnapshot() {
+        lock.readLock().lock();
+        try {
+            Map<Category, Category> categories = new IdentityHashMap<>();
+            Map<Priority, Priority> priorities = new IdentityHashMap<>();
+            List<Task> all = store.all();
+            List<Task> copies = new ArrayList<>(all.size());
+            for (Task task : all) {
+                Task copy = task.copy();
+                if (copy.getCategory() != null) {
+                    copy.setCategory(categories.computeIfAbsent(copy.getCategory(), category -> new Category(category.getName())));
+                }
+                copy.setPriorityRef(priorities.computeIfAbsent(copy.getPriorityRef(), priority -> new Priority(priority.getName())));
+                copies.add(copy);
+            }
+            return copies;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all tasks in the order of {@link #getTasks()}, for views that only
+     * fetch the tasks they show.
+     */
+    public List<UUID> getTaskIds() {
+        return store.ids();
+    }
+
+    /**
+     * Returns the ids of the tasks whose title, category and priority contain the given text,
+     * ignoring case, in the order of {@link #getTasks()}. A blank query matches everything.
+     * <p>
+     * Unlike the other methods this may be called from a background thread: it holds off
+     * mutations while it runs, but steps aside and starts over whenever one is waiting, and
+     * gives up with a {@link CancellationException} as soon as the calling thread is interrupted.
+     */
+    public List<UUID> searchIds(String titleQuery, String categoryQuery, String priorityQuery) {
+        String title = titleQuery.trim();
+        return readLocked(() -> {
+            TrigramIndex<UUID> titles = title.isEmpty() ? null : titleIndex();
+            if (!title.isEmpty() && titles == null) {
+                return null;
+            }
+            TaskSearch search = new TaskSearch(titles, title, categoryQuery.trim(), priorityQuery.trim());
+            List<UUID> ids = store.ids();
+            if (search.matchesAll()) {
+                return ids;
+            }
+            List<UUID> matches = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if ((i & 0xFFF) == 0 && mustStepAside()) {
+                    return null;
+                }
+                if (search.test(ids.get(i))) {
+                    matches.add(ids.get(i));
+                }
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Returns {@code ids} ordered by one field of their tasks. The sort is stable, so sorting by
+     * each key of a multi-column order in turn, least significant first, orders by all of them.
+     * Missing values come first, and ids of deleted tasks are treated as missing.
+     * <p>
+     * Each task's field is first reduced to an int (its epoch day, status ordinal, or rank among
+     * the distinct names or texts), and key and position are packed into one long, so the sort
+     * itself is a parallel sort of primitives. Like {@link #searchIds} this may run on a
+     * background thread; only reading the fields holds the lock.
+     */
+    public List<UUID> sortIds(List<UUID> ids, SortKey key, boolean descending) {
+        int[] keys = switch (key) {
+            case DEADLINE -> epochDays(readLocked(() -> fieldValues(ids, Task::getDeadline, LocalDate[]::new)));
+            case STATUS -> ordinals(readLocked(() -> fieldValues(ids, Task::getStatus, Task.Status[]::new)));
+            // Names change in place, so they are ranked before the lock is let go.
+            case PRIORITY -> readLocked(() -> rankByName(fieldValues(ids, Task::getPriorityRef, Priority[]::new), Priority::getName));
+            case CATEGORY -> readLocked(() -> rankByName(fieldValues(ids, Task::getCategory, Category[]::new), Category::getName));
+            case TITLE -> rankTexts(readLocked(() -> fieldValues(ids, Task::getTitle, String[]::new)));
+            case DESCRIPTION -> rankTexts(readLocked(() -> fieldValues(ids, Task::getDescription, String[]::new)));
+        };
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            // ~k reverses the order of ints without overflowing, unlike -k.
+            packed[i] = (long) (descending ? ~keys[i] : keys[i]) << 32 | i;
+        }
+        Arrays.parallelSort(packed);
+        checkInterrupted();
+        List<UUID> sorted = new ArrayList<>(packed.length);
+        for (long entry : packed) {
+            sorted.add(ids.get((int) entry));
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the order {@link #sortIds} puts tasks in for one key, for moving a single task
+     * into place among sorted ones. A {@code null} task, like a deleted one there, has no values.
+     */
+    public static Comparator<Task> sortComparator(SortKey key, boolean descending) {
+        Comparator<String> text = Comparator.nullsFirst(Collator.getInstance()::compare);
+        Comparator<Task> order = switch (key) {
+            case DEADLINE -> Comparator.comparing(field(Task::getDeadline), Comparator.nullsFirst(Comparator.naturalOrder()));
+            case STATUS -> Comparator.comparing(field(Task::getStatus), Comparator.nullsFirst(Comparator.naturalOrder()));
+            case PRIORITY -> Comparator.comparing(field(task -> task.getPriorityRef().getName()), text);
+            case CATEGORY -> Comparator.comparing(field(task -> task.getCategory() != null ? task.getCategory().getName() : null), text);
+            case TITLE -> Comparator.comparing(field(Task::getTitle), text);
+            case DESCRIPTION -> Comparator.comparing(field(Task::getDescription), text);
+        };
+        return descending ? order.reversed() : order;
+    }
+
+    private static <T> Function<Task, T> field(Function<Task, T> getter) {
+        return task -> task != null ? getter.apply(task) : null;
+    }
+
+    /**
+     * Tells whether {@code task} would be part of {@link #searchIds} for the same queries.
+     */
+    public boolean matches(Task task, String titleQuery, String categoryQuery, String priorityQuery) {
+        return containsIgnoreCase(task.getTitle(), titleQuery)
+                && containsIgnoreCase(task.getCategory() != null ? task.getCategory().getName() : null, categoryQuery)
+                && containsIgnoreCase(task.getPriorityRef().getName(), priorityQuery);
     }
 
     public long getTotalTasks() {
-        return tasks.size();
+        return store.size();
     }
     
     public long getCompletedTasks() {
-        return tasks.stream().filter(task -> task.getStatus() == Task.Status.COMPLETED).count();
+        return store.countByStatus(Task.Status.COMPLETED);
     }
     
     public long getDelayedTasks() {
-        return tasks.stream().filter(task -> task.getStatus() == Task.Status.DELAYED).count();
+        return store.countByStatus(Task.Status.DELAYED);
     }
     
     public long getUpcomingTasks() {
-        LocalDate today = LocalDate.now();
-        LocalDate oneWeekFromNow = today.plusDays(7);
-    
-        return tasks.stream()
-                .filter(task -> task.getDeadline() != null 
-                        && (task.getDeadline().isEqual(today) || (task.getDeadline().isAfter(today) && task.getDeadline().isBefore(oneWeekFromNow.plusDays(1)))))
-                .count();
+        long today = LocalDate.now().toEpochDay();
+        long oneWeekFromNow = today + 7;
+        return store.countDueBetween(today, oneWeekFromNow);
     }
     
 
-    
+    /**
+     * Points the task at the shared category and priority instances for its names.
+     */
+    private Task canonicalize(Task task) {
+        if (task.getCategory() != null && task.getCategory().getName() != null) {
+            task.setCategory(indexName(categoryRegistry.intern(task.getCategory().getName())));
+        }
+        task.setPriorityRef(indexName(priorityRegistry.intern(task.getPriority())));
+        return task;
+    }
+
+    private static boolean containsIgnoreCase(String text, String query) {
+        String needle = query.trim();
+        return needle.isEmpty() || text != null && text.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
+    }
+
+    private Category indexName(Category category) {
+        if (!categoryNameIndex.contains(category)) {
+            categoryNameIndex.put(category, category.getName());
+        }
+        return category;
+    }
+
+    private Priority indexName(Priority priority) {
+        if (!priorityNameIndex.contains(priority)) {
+            priorityNameIndex.put(priority, priority.getName());
+        }
+        return priority;
+    }
+
+    private void indexTitle(Task task) {
+        if (titleIndex != null) {
+            titleIndex.put(task.getId(), task.getTitle());
+        }
+    }
+
+    private void unindexTitle(UUID taskId) {
+        if (titleIndex != null) {
+            titleIndex.remove(taskId);
+        }
+    }
+
+    // Searches build the index under the read lock, so they may race each other but not writers.
+    // A build that steps aside for a writer is thrown away, and null is returned.
+    private synchronized TrigramIndex<UUID> titleIndex() {
+        if (titleIndex == null) {
+            // Titles still in a mapped snapshot are read from it without being loaded into the tasks.
+            TrigramIndex<UUID> index = new TrigramIndex<>(new HashMap<>(), this::storedTitle);
+            List<Task> all = store.all();
+            for (int i = 0; i < all.size(); i++) {
+                if ((i & 0xFFF) == 0 && mustStepAside()) {
+                    return null;
+                }
+                index.put(all.get(i).getId(), JsonUtils.titleOf(all.get(i)));
+            }
+            titleIndex = index;
+        }
+        return titleIndex;
+    }
+
+    private String storedTitle(UUID taskId) {
+        return store.title(taskId);
+    }
+
+    private void resetSearchIndexes() {
+        titleIndex = null;
+        categoryNameIndex.clear();
+        priorityNameIndex.clear();
+    }
+
+    /**
+     * Matches tasks against the ids and instances that the search indexes return for the
+     * queries, so each test is a few hash lookups.
+     */
+    private final class TaskSearch {
+        private Set<UUID> titleMatches;
+        private Set<Category> categoryMatches;
+        private Set<Priority> priorityMatches;
+
+        TaskSearch(TrigramIndex<UUID> titles, String titleQuery, String categoryQuery, String priorityQuery) {
+            if (!titleQuery.isEmpty()) {
+                titleMatches = new HashSet<>();
+                titles.search(titleQuery, titleMatches::add);
+            }
+            if (!categoryQuery.isEmpty()) {
+                categoryMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+                categoryNameIndex.search(categoryQuery, categoryMatches::add);
+            }
+            if (!priorityQuery.isEmpty()) {
+                priorityMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+                priorityNameIndex.search(priorityQuery, priorityMatches::add);
+            }
+        }
+
+        boolean matchesAll() {
+            return titleMatches == null && categoryMatches == null && priorityMatches == null;
+        }
+
+        // The task itself is only fetched when the title alone does not decide.
+        boolean test(UUID taskId) {
+            if (titleMatches != null && !titleMatches.contains(taskId)) {
+                return false;
+            }
+            if (categoryMatches == null && priorityMatches == null) {
+                return true;
+            }
+            Task task = store.get(taskId);
+            return (categoryMatches == null || categoryMatches.contains(task.getCategory()))
+                    && (priorityMatches == null || priorityMatches.contains(task.getPriorityRef()));
+        }
+    }
+
+    // Reads one field of each task, null for deleted ones. Runs under the read lock, and
+    // returns null itself if it stepped aside for a writer.
+    private <T> T[] fieldValues(List<UUID> ids, Function<Task, T> field, IntFunction<T[]> newArray) {
+        T[] values = newArray.apply(ids.size());
+        for (int i = 0; i < values.length; i++) {
+            if ((i & 0xFFF) == 0 && mustStepAside()) {
+                return null;
+            }
+            Task task = store.get(ids.get(i));
+            values[i] = task != null ? field.apply(task) : null;
+        }
+        return values;
+    }
+
+    private static int[] epochDays(LocalDate[] deadlines) {
+        int[] keys = new int[deadlines.length];
+        for (int i = 0; i < deadlines.length; i++) {
+            keys[i] = deadlines[i] != null ? (int) deadlines[i].toEpochDay() : Integer.MIN_VALUE;
+        }
+        return keys;
+    }
+
+    private static int[] ordinals(Task.Status[] statuses) {
+        int[] keys = new int[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            keys[i] = statuses[i] != null ? statuses[i].ordinal() : -1;
+        }
+        return keys;
+    }
+
+    // Only a handful of priorities and categories are in use, so the distinct instances are
+    // ranked by name once each; instances whose names collate as equal share a rank.
+    private static <T> int[] rankByName(T[] values, Function<T, String> name) {
+        if (values == null) {
+            return null;
+        }
+        Map<T, Integer> ranks = new IdentityHashMap<>();
+        for (T value : values) {
+            if (value != null) {
+                ranks.put(value, 0);
+            }
+        }
+        Comparator<T> byNameOrder = Comparator.comparing(name, Comparator.nullsFirst(Collator.getInstance()::compare));
+        List<T> byName = new ArrayList<>(ranks.keySet());
+        byName.sort(byNameOrder);
+        int rank = 0;
+        for (int i = 0; i < byName.size(); i++) {
+            if (i > 0 && byNameOrder.compare(byName.get(i - 1), byName.get(i)) != 0) {
+                rank++;
+            }
+            ranks.put(byName.get(i), rank);
+        }
+        int[] keys = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            keys[i] = values[i] != null ? ranks.get(values[i]) : -1;
+        }
+        return keys;
+    }
+
+    // Ranks each text among the distinct texts in the order of the default locale's collator,
+    // which is how a table column sorts strings.
+    private static int[] rankTexts(String[] texts) {
+        int count = 0;
+        for (String text : texts) {
+            if (text != null) {
+                count++;
+            }
+        }
+        String[] distinct = new String[count];
+        count = 0;
+        for (String text : texts) {
+            if (text != null) {
+                distinct[count++] = text;
+            }
+        }
+        // The natural order only removes duplicates and finds each text's entry again below.
+        Arrays.parallelSort(distinct);
+        int unique = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || !distinct[i].equals(distinct[unique - 1])) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        int[] ranks = collationRanks(distinct, unique);
+        int[] keys = new int[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            keys[i] = texts[i] != null ? ranks[Arrays.binarySearch(distinct, 0, unique, texts[i])] : -1;
+        }
+        return keys;
+    }
+
+    // Ranks the first count strings, which are sorted and distinct, in collation order. Collation
+    // keys compare as plain bytes, so each string goes through the collator only once.
+    private static int[] collationRanks(String[] strings, int count) {
+        Collator collator = Collator.getInstance();
+        CollationKey[] collationKeys = new CollationKey[count];
+        for (int i = 0; i < count; i++) {
+            if ((i & 0xFFF) == 0) {
+                checkInterrupted();
+            }
+            collationKeys[i] = collator.getCollationKey(strings[i]);
+        }
+        Arrays.parallelSort(collationKeys);
+        int[] ranks = new int[count];
+        int rank = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && collationKeys[i].compareTo(collationKeys[i - 1]) != 0) {
+                rank++;
+            }
+            ranks[Arrays.binarySearch(strings, 0, count, collationKeys[i].getSourceString())] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Runs {@code read} under the read lock. A long read checks {@link #mustStepAside} every few
+     * thousand rows and returns {@code null} when a mutation is waiting for the lock, so the FX
+     * thread is never held up for longer than that; the read is then started over once the
+     * mutation is done.
+     */
+    private <T> T readLocked(Supplier<T> read) {
+        while (true) {
+            T result;
+            lock.readLock().lock();
+            try {
+                result = read.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+            // A queued writer is granted the lock before this thread can take the read lock again.
+            if (result != null) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Runs a change to a category or priority instance that tasks share under the write lock,
+     * so a search or sort running at the same time never sees it half done.
+     */
+    void changeShared(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Gives up if the search was superseded; otherwise tells whether a writer is waiting.
+    private boolean mustStepAside() {
+        checkInterrupted();
+        return lock.hasQueuedThreads();
+    }
+
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search superseded");
+        }
+    }
+
+    private void publish(Change change) {
+        if (changeBus != null) {
+            changeBus.publish(ChangeBus.Topic.TASKS, change);
+        }
+    }
+
+    private void journalPut(Task task) {
+        if (journal != null) {
+            journal.append("task", "put", task);
+        }
+    }
+
+    private void journalRemove(UUID taskId) {
+        if (journal != null) {
+            journal.append("task", "remove", taskId);
+        }
+    }
+
     public void printTasks() {
-        tasks.forEach(System.out::println);
+        store.all().forEach(System.out::println);
     }
 }
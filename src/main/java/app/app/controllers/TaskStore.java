@@ -0,0 +1,95 @@
+package app.controllers;
+
+import app.models.Category;
+import app.models.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage engine behind {@link TaskController}. Implementations keep the tasks and whatever
+ * indexes they need; the controller handles journaling, reminders and messages.
+ * <p>
+ * Tasks returned by a store may be views over its internal storage, so the fields a store
+ * indexes (category, deadline and status) must be changed through the store, and a task
+ * that is read outside the controller's lock must be a {@link Task#copy()}.
+ * <p>
+ * Categories and priorities are canonical instances shared by all tasks that use them (see
+ * {@link NameRegistry}). Renaming or merging them is done on the instance; the store is then
+ * told so that it can re-key whatever it indexes by name.
+ */
+public interface TaskStore {
+    void clear();
+
+    /**
+     * Inserts {@code task}, replacing any task with the same id.
+     *
+     * @return the stored task, which may be a view rather than {@code task} itself
+     */
+    Task put(Task task);
+
+    Task get(UUID id);
+
+    /**
+     * Reads only the title, without building a task, for views that show nothing else.
+     *
+     * @return the title of the task, empty if it has none, or {@code null} if there is no such task
+     */
+    String title(UUID id);
+
+    /**
+     * @return the removed task, detached from the store, or {@code null} if there was none
+     */
+    Task remove(UUID id);
+
+    List<Task> removeCategory(String categoryName);
+
+    /**
+     * Called after the canonical category {@code oldName} has been renamed to {@code newName}.
+     */
+    void renameCategory(String oldName, String newName);
+
+    void setCategory(Task task, Category category);
+
+    void setDeadline(Task task, LocalDate deadline);
+
+    void setStatus(Task task, Task.Status status);
+
+    /**
+     * Called after the canonical priority {@code oldName} has been renamed to {@code newName}.
+     */
+    void renamePriority(String oldName, String newName);
+
+    /**
+     * Called after the canonical priority {@code deletedName} has been merged into
+     * {@code replacementName}.
+     */
+    void mergePriority(String deletedName, String replacementName);
+
+    /**
+     * Marks every task due before {@code todayEpochDay} that is not completed as delayed.
+     */
+    void markOverdue(long todayEpochDay);
+
+    List<Task> inCategory(String categoryName);
+
+    /**
+     * @return every task, in insertion order
+     */
+    List<Task> all();
+
+    /**
+     * @return the id of every task, in the order of {@link #all()}, without handing out the tasks
+     */
+    List<UUID> ids();
+
+    int size();
+
+    long countByStatus(Task.Status status);
+
+    /**
+     * @return the number of tasks due between the two epoch days, both inclusive
+     */
+    long countDueBetween(long fromEpochDay, long toEpochDay);
+}
@@ -0,0 +1,243 @@
+package app.controllers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive substring search over short texts, through an inverted index of the
+ * three-character sequences (trigrams) each text contains.
+ * <p>
+ * Every {@link #put} gives the text a new document number, so posting lists only ever grow at
+ * the end and stay sorted. Replaced and removed documents are left in the posting lists as
+ * dead entries until they outnumber the live ones, at which point the index is rebuilt.
+ * <p>
+ * Trigrams are packed into longs and kept in an open-addressing table rather than a
+ * {@code HashMap<Long, ...>}, which spent most of a bulk build boxing keys.
+ * <p>
+ * The index keeps no copy of the texts. Candidates are checked against the owner's current
+ * text, looked up by key, so the index costs the posting lists plus one key per document.
+ * <p>
+ * Not thread-safe.
+ */
+final class TrigramIndex<K> {
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private final Map<K, Integer> docsByKey;
+    private final Function<? super K, String> textOf;
+    // Open-addressing table from packed trigram to its posting list; a null list is a free slot.
+    private long[] grams = new long[1024];
+    private Postings[] postings = new Postings[1024];
+    private int gramCount;
+    // Per document: its key, or null once the document is dead.
+    private Object[] keys = new Object[16];
+    private int docCount;
+
+    /**
+     * @param docsByKey empty map used to find a key's document; pass an identity map when keys
+     *                  are mutable objects
+     * @param textOf    the current text of a key, which candidates are checked against
+     */
+    TrigramIndex(Map<K, Integer> docsByKey, Function<? super K, String> textOf) {
+        this.docsByKey = docsByKey;
+        this.textOf = textOf;
+    }
+
+    void clear() {
+        docsByKey.clear();
+        grams = new long[1024];
+        postings = new Postings[1024];
+        gramCount = 0;
+        keys = new Object[16];
+        docCount = 0;
+    }
+
+    boolean contains(K key) {
+        return docsByKey.containsKey(key);
+    }
+
+    int size() {
+        return docsByKey.size();
+    }
+
+    /**
+     * Indexes {@code text} under {@code key}, replacing whatever was indexed for it before.
+     */
+    void put(K key, String text) {
+        Integer previous = docsByKey.get(key);
+        if (previous != null) {
+            kill(previous);
+        }
+        if (docCount == keys.length) {
+            if (docsByKey.size() >= MIN_COMPACT_SIZE && docsByKey.size() < docCount / 2) {
+                compact();
+            } else {
+                keys = Arrays.copyOf(keys, docCount * 2);
+            }
+        }
+        add(key, text != null ? text.toLowerCase(Locale.ROOT) : "");
+    }
+
+    void remove(K key) {
+        Integer doc = docsByKey.remove(key);
+        if (doc != null) {
+            kill(doc);
+        }
+    }
+
+    /**
+     * Passes every key whose text contains {@code query}, ignoring case, to {@code consumer}.
+     */
+    @SuppressWarnings("unchecked")
+    void search(String query, Consumer<? super K> consumer) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        if (needle.length() < 3) {
+            // Too short to have a trigram; the texts are scanned directly.
+            for (int doc = 0; doc < docCount; doc++) {
+                if (keys[doc] != null && contains((K) keys[doc], needle)) {
+                    consumer.accept((K) keys[doc]);
+                }
+            }
+            return;
+        }
+
+        long[] needleGrams = trigrams(needle);
+        List<Postings> lists = new ArrayList<>(needleGrams.length);
+        for (long gram : needleGrams) {
+            Postings list = postings[slot(gram)];
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        // Intersect starting from the rarest trigram, then check the survivors for real.
+        int[] candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            if (keys[doc] != null && contains((K) keys[doc], needle)) {
+                consumer.accept((K) keys[doc]);
+            }
+        }
+    }
+
+    private boolean contains(K key, String needle) {
+        String text = textOf.apply(key);
+        return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private void add(K key, String text) {
+        int doc = docCount++;
+        keys[doc] = key;
+        docsByKey.put(key, doc);
+        for (long gram : trigrams(text)) {
+            int slot = slot(gram);
+            Postings list = postings[slot];
+            if (list == null) {
+                list = new Postings();
+                grams[slot] = gram;
+                postings[slot] = list;
+                if (++gramCount * 2 > grams.length) {
+                    growGrams();
+                }
+            }
+            list.add(doc);
+        }
+    }
+
+    // The slot holding gram, or the free slot where it would go.
+    private int slot(long gram) {
+        int mask = grams.length - 1;
+        int slot = (int) (gram >>> 40) & mask;
+        while (postings[slot] != null && grams[slot] != gram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growGrams() {
+        long[] oldGrams = grams;
+        Postings[] oldPostings = postings;
+        grams = new long[oldGrams.length * 2];
+        postings = new Postings[oldGrams.length * 2];
+        for (int i = 0; i < oldGrams.length; i++) {
+            if (oldPostings[i] != null) {
+                int slot = slot(oldGrams[i]);
+                grams[slot] = oldGrams[i];
+                postings[slot] = oldPostings[i];
+            }
+        }
+    }
+
+    private void kill(int doc) {
+        keys[doc] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        Object[] liveKeys = keys;
+        int liveCount = docCount;
+        clear();
+        keys = new Object[Math.max(16, liveCount)];
+        for (int doc = 0; doc < liveCount; doc++) {
+            if (liveKeys[doc] != null) {
+                K key = (K) liveKeys[doc];
+                String text = textOf.apply(key);
+                add(key, text != null ? text.toLowerCase(Locale.ROOT) : "");
+            }
+        }
+    }
+
+    // Keeps the first count candidates that also appear in list; both are sorted.
+    private static int intersect(int[] candidates, int count, Postings list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < list.size; i++) {
+            int found = Arrays.binarySearch(list.docs, from, list.size, candidates[i]);
+            if (found >= 0) {
+                candidates[kept++] = candidates[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    // Trigrams of text, repeats included. Each is three 16-bit chars packed into a long and then
+    // multiplied by an odd constant, which keeps them distinct and mixes the high bits for slot().
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] textGrams = new long[text.length() - 2];
+        for (int i = 0; i < textGrams.length; i++) {
+            textGrams[i] = ((long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2)) * 0x9E3779B97F4A7C15L;
+        }
+        return textGrams;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return; // the trigram occurs more than once in this document
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
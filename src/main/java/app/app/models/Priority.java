@@ -4,6 +4,8 @@ import java.util.Objects;
 
 public class Priority {
     private String name;
+    // Set when this priority is deleted; tasks that still refer to it read the target instead.
+    private Priority mergedInto;
 
     public Priority(String name) {
         this.name = name;
@@ -27,6 +29,26 @@ public class Priority {
         }
     }
 
+    /**
+     * Makes tasks that refer to this priority read {@code target} from now on.
+     */
+    public void mergeInto(Priority target) {
+        if (target != this) {
+            this.mergedInto = target;
+        }
+    }
+
+    /**
+     * Returns the priority this one has been merged into, or this priority if it is still live.
+     */
+    public Priority resolve() {
+        Priority priority = this;
+        while (priority.mergedInto != null) {
+            priority = priority.mergedInto;
+        }
+        return priority;
+    }
+
     @Override
     public String toString() {
         return "Priority{" +
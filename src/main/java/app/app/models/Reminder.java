@@ -5,28 +5,39 @@ import java.util.Objects;
 import java.util.UUID;
 
 public class Reminder {
-    private String id;
-    private String taskId; 
+    private UUID id;
+    private UUID taskId;
     private LocalDate reminderDate;
     private String description;
 
     public Reminder() {}
 
-    public Reminder(String taskId, LocalDate reminderDate, String description) {
-        this.id = UUID.randomUUID().toString(); 
+    public Reminder(UUID taskId, LocalDate reminderDate, String description) {
+        this(Ids.next(), taskId, reminderDate, description);
+    }
+
+    private Reminder(UUID id, UUID taskId, LocalDate reminderDate, String description) {
+        this.id = id;
         this.taskId = taskId;
         this.reminderDate = reminderDate;
         this.description = description;
     }
 
-    public String getId(){
+    /**
+     * Recreates a previously saved reminder, keeping its original id.
+     */
+    public static Reminder restore(UUID id, UUID taskId, LocalDate reminderDate, String description) {
+        return new Reminder(id, taskId, reminderDate, description);
+    }
+
+    public UUID getId(){
         return id;
     }
-    public String getTaskId() {
+    public UUID getTaskId() {
         return taskId;
     }
 
-    public void setTaskId(String taskId) {
+    public void setTaskId(UUID taskId) {
         this.taskId = taskId;
     }
 
@@ -1,6 +1,8 @@
 package app.models;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
@@ -11,30 +13,58 @@ public class Task {
     }
 
     private String title;
-    private String id;
+    private UUID id;
     private String description;
     private Category category;
-    private String priority;  
+    // Shared with every task of the same priority once the task is stored by TaskController.
+    private Priority priority;
     private LocalDate deadline;  
     private Status status;  
 
     public Task(String title, String description, Category category, String priority, LocalDate deadline, Status status) {
+        this(Ids.next(), title, description, category, priority, deadline, status);
+    }
+
+    protected Task(UUID id, String title, String description, Category category, String priority, LocalDate deadline, Status status) {
+        this(id, title, description, category, new Priority((priority != null && !priority.isEmpty()) ? priority : "Default"),
+                deadline, status);
+    }
+
+    /**
+     * Takes the priority instance as it is, so tasks and views of stored tasks can share it.
+     */
+    protected Task(UUID id, String title, String description, Category category, Priority priority, LocalDate deadline, Status status) {
         this.title = title;
-        this.id = UUID.randomUUID().toString();
+        this.id = id;
         this.description = description;
         this.category = category;
-        this.priority = (priority != null && !priority.isEmpty()) ? priority : "Default";  
+        this.priority = priority;
         this.deadline = deadline;
         this.status = (status != null) ? status : Status.OPEN;  
     }
 
     public Task() {
-        this.id = UUID.randomUUID().toString();
+        this.id = Ids.next();
         this.status = Status.OPEN;  
-        this.priority = "Default";  
+        this.priority = new Priority("Default");
+    }
+
+    /**
+     * Recreates a previously saved task, keeping its original id.
+     */
+    public static Task restore(UUID id, String title, String description, Category category, String priority, LocalDate deadline, Status status) {
+        return new Task(id, title, description, category, priority, deadline, status);
     }
 
-    public String getId() {
+    /**
+     * Returns a plain task holding this task's current values, unaffected by later changes to
+     * this one. The category and priority instances are shared.
+     */
+    public Task copy() {
+        return new Task(id, getTitle(), getDescription(), getCategory(), getPriorityRef(), getDeadline(), getStatus());
+    }
+
+    public UUID getId() {
         return id;
     }
 
@@ -63,16 +93,26 @@ public class Task {
     }
 
     public String getPriority() {
-        return priority;
+        return getPriorityRef().getName();
     }
     public void setPriority(String priority) {
         if (priority == null || priority.isEmpty()) {
-            this.priority = "Default"; 
+            this.priority = new Priority("Default");
         } else {
-            this.priority = priority;
+            this.priority = new Priority(priority);
         }
     }
 
+    @JsonIgnore
+    public Priority getPriorityRef() {
+        return priority.resolve();
+    }
+
+    @JsonIgnore
+    public void setPriorityRef(Priority priority) {
+        this.priority = priority;
+    }
+
     public LocalDate getDeadline() {
         return deadline;
     }
@@ -93,18 +133,18 @@ public class Task {
     public String toString() {
         return "Task{" +
                 "id='" + id + '\'' +
-                ", title='" + title + '\'' +
-                ", description='" + description + '\'' +
-                ", category=" + (category != null ? category.getName() : "None") +
-                ", priority='" + priority + '\'' +
-                ", deadline=" + deadline +
-                ", status=" + status +
+                ", title='" + getTitle() + '\'' +
+                ", description='" + getDescription() + '\'' +
+                ", category=" + (getCategory() != null ? getCategory().getName() : "None") +
+                ", priority='" + getPriority() + '\'' +
+                ", deadline=" + getDeadline() +
+                ", status=" + getStatus() +
                 '}';
     }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Task)) return false;
         Task task = (Task) o;
         return Objects.equals(id, task.id);
     }
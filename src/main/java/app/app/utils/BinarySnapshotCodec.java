@@ -0,0 +1,353 @@
+package app.utils;
+
+import app.models.Category;
+import app.models.Priority;
+import app.models.Reminder;
+import app.models.Task;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary encoding of the medialab data files.
+ * <p>
+ * Layout: the {@link #MAGIC} number, a format version, a record type and a record count,
+ * followed by the records. Strings are length-prefixed UTF-8, ids are their two 64-bit
+ * halves, dates are epoch days and statuses are ordinals. Task files start with
+ * dictionaries of category and priority names, and each task refers to them by index
+ * instead of repeating the names.
+ * <p>
+ * Task files split each task into three areas so the file can be opened lazily by
+ * {@link MappedTaskSnapshot}:
+ * <ol>
+ *   <li>a table of fixed-width rows ({@value #TASK_ROW_BYTES} bytes each): text offset,
+ *       deadline, status, category and priority dictionary indexes;</li>
+ *   <li>the task ids, {@value #ID_BYTES} bytes per row, in row order;</li>
+ *   <li>the title and description of each task, at the row's text offset.</li>
+ * </ol>
+ * The text area is written last and streamed task by task; text still held in the mapping
+ * of an earlier snapshot is copied over byte for byte.
+ * <p>
+ * Files are written in version {@value #VERSION}. Older files can still be read: version
+ * {@value #LEGACY_VERSION} stores tasks as sequential records, and versions
+ * {@value #LEGACY_VERSION} and {@value #LEGACY_TASK_VERSION} store ids as strings.
+ */
+final class BinarySnapshotCodec {
+    static final int MAGIC = 0x4D4C534E; // "MLSN"
+    static final byte VERSION = 3;
+    static final byte LEGACY_VERSION = 1;
+    static final byte LEGACY_TASK_VERSION = 2;
+    static final int TASK_ROW_BYTES = 21;
+    static final int ID_BYTES = 16;
+
+    static final byte TYPE_TASK = 1;
+    private static final byte TYPE_CATEGORY = 2;
+    private static final byte TYPE_PRIORITY = 3;
+    private static final byte TYPE_REMINDER = 4;
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final int NO_STATUS = 0xFF;
+
+    private BinarySnapshotCodec() {}
+
+    static <T> void write(OutputStream stream, List<T> data, Class<T> type) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(typeCode(type));
+        out.writeInt(data.size());
+
+        if (type == Task.class) {
+            writeTasks(out, castList(data));
+        } else if (type == Category.class) {
+            for (T item : data) {
+                writeString(out, ((Category) item).getName());
+            }
+        } else if (type == Priority.class) {
+            for (T item : data) {
+                writeString(out, ((Priority) item).getName());
+            }
+        } else {
+            for (T item : data) {
+                Reminder reminder = (Reminder) item;
+                writeId(out, reminder.getId());
+                writeId(out, reminder.getTaskId());
+                writeDate(out, reminder.getReminderDate());
+                writeString(out, reminder.getDescription());
+            }
+        }
+        out.flush();
+    }
+
+    static <T> void read(InputStream stream, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary snapshot");
+        }
+        byte version = in.readByte();
+        // Task files in the current layout are opened through MappedTaskSnapshot instead.
+        if (version != LEGACY_VERSION && (version != VERSION || type == Task.class)) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+        if (in.readByte() != typeCode(type)) {
+            throw new IOException("Binary snapshot does not contain " + type.getSimpleName() + " records");
+        }
+        int count = in.readInt();
+
+        if (type == Task.class) {
+            readTasks(in, version, count, castConsumer(consumer));
+        } else if (type == Category.class) {
+            for (int i = 0; i < count; i++) {
+                consumer.accept(type.cast(new Category(readString(in))));
+            }
+        } else if (type == Priority.class) {
+            for (int i = 0; i < count; i++) {
+                consumer.accept(type.cast(new Priority(readString(in))));
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                consumer.accept(type.cast(Reminder.restore(readId(in, version), readId(in, version), readDate(in), readString(in))));
+            }
+        }
+    }
+
+    private static void writeTasks(DataOutputStream out, List<Task> tasks) throws IOException {
+        Map<String, Integer> categoryIds = new LinkedHashMap<>();
+        Map<String, Integer> priorityIds = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            if (task.getCategory() != null) {
+                categoryIds.putIfAbsent(task.getCategory().getName(), categoryIds.size());
+            }
+            priorityIds.putIfAbsent(task.getPriority(), priorityIds.size());
+        }
+        writeDictionary(out, categoryIds);
+        writeDictionary(out, priorityIds);
+
+        // Only the sizes are collected here; the text itself is streamed after the ids.
+        int[] textLengths = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            textLengths[i] = textLength(tasks.get(i));
+        }
+
+        // out.size() counts everything written so far, header included, so offsets are absolute.
+        long textOffset = out.size() + (long) (TASK_ROW_BYTES + ID_BYTES) * tasks.size();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            out.writeLong(textOffset);
+            writeDate(out, task.getDeadline());
+            out.writeByte(task.getStatus() != null ? task.getStatus().ordinal() : NO_STATUS);
+            out.writeInt(task.getCategory() != null ? categoryIds.get(task.getCategory().getName()) + 1 : 0);
+            out.writeInt(priorityIds.get(task.getPriority()));
+            textOffset += textLengths[i];
+        }
+        for (Task task : tasks) {
+            writeId(out, task.getId());
+        }
+        byte[] copyBuffer = new byte[8 * 1024];
+        for (int i = 0; i < tasks.size(); i++) {
+            writeText(out, tasks.get(i), textLengths[i], copyBuffer);
+        }
+    }
+
+    // Text that was never loaded from a mapped snapshot is measured in place, not decoded.
+    private static int textLength(Task task) {
+        MemorySegment raw = MappedTaskSnapshot.rawText(task);
+        if (raw != null) {
+            return (int) raw.byteSize();
+        }
+        return (int) (encodedLength(task.getTitle()) + encodedLength(task.getDescription()));
+    }
+
+    private static void writeText(DataOutputStream out, Task task, int length, byte[] copyBuffer) throws IOException {
+        MemorySegment raw = MappedTaskSnapshot.rawText(task);
+        if (raw != null && raw.byteSize() == length) {
+            for (long position = 0; position < length; position += copyBuffer.length) {
+                int chunk = (int) Math.min(copyBuffer.length, length - position);
+                MemorySegment.copy(raw, ValueLayout.JAVA_BYTE, position, copyBuffer, 0, chunk);
+                out.write(copyBuffer, 0, chunk);
+            }
+            return;
+        }
+        String title = task.getTitle();
+        String description = task.getDescription();
+        // The row table already points past this text, so it must not have changed size.
+        if (encodedLength(title) + encodedLength(description) != length) {
+            throw new IOException("Task " + task.getId() + " changed while the snapshot was written");
+        }
+        writeString(out, title);
+        writeString(out, description);
+    }
+
+    private static long encodedLength(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = utf8Length(value);
+        return varIntLength(length + 1) + length;
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static void readTasks(DataInputStream in, byte version, int count, Consumer<? super Task> consumer) throws IOException {
+        List<Category> categories = readDictionary(in).stream().map(Category::new).toList();
+        List<String> priorityNames = readDictionary(in);
+        Task.Status[] statuses = Task.Status.values();
+
+        for (int i = 0; i < count; i++) {
+            UUID id = readId(in, version);
+            String title = readString(in);
+            String description = readString(in);
+            int categoryId = readVarInt(in);
+            String priority = priorityNames.get(readVarInt(in));
+            LocalDate deadline = readDate(in);
+            int status = in.readUnsignedByte();
+            Category category = categoryId > 0 ? categories.get(categoryId - 1) : null;
+            consumer.accept(Task.restore(id, title, description, category, priority, deadline,
+                    status != NO_STATUS ? statuses[status] : null));
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> dictionary) throws IOException {
+        writeVarInt(out, dictionary.size());
+        for (String name : dictionary.keySet()) {
+            writeString(out, name);
+        }
+    }
+
+    private static List<String> readDictionary(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(readString(in));
+        }
+        return names;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readId(DataInputStream in, byte version) throws IOException {
+        return version == VERSION ? new UUID(in.readLong(), in.readLong()) : parseId(readString(in));
+    }
+
+    static UUID parseId(String id) throws IOException {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Invalid id in binary snapshot: " + id, e);
+        }
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeInt(date != null ? (int) date.toEpochDay() : NO_DATE);
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed length in binary snapshot");
+    }
+
+    private static byte typeCode(Class<?> type) {
+        if (type == Task.class) {
+            return TYPE_TASK;
+        } else if (type == Category.class) {
+            return TYPE_CATEGORY;
+        } else if (type == Priority.class) {
+            return TYPE_PRIORITY;
+        } else if (type == Reminder.class) {
+            return TYPE_REMINDER;
+        }
+        throw new IllegalArgumentException("No binary encoding for " + type.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<Task> castList(List<T> data) {
+        return (List<Task>) data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<? super Task> castConsumer(Consumer<? super T> consumer) {
+        return (Consumer<? super Task>) consumer;
+    }
+}
@@ -0,0 +1,284 @@
+package app.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Append-only write-ahead journal of controller mutations.
+ * <p>
+ * Each mutation is one JSON line ({@code {"store": ..., "op": ..., "data": ...}}).
+ * Appends only fill an in-memory buffer; a background committer writes and forces the
+ * buffered lines to disk every few milliseconds, so many edits share one fsync.
+ * Once the journal grows past a threshold it is compacted: the committer rotates the
+ * current segment to {@code <file>.old}, the registered {@link Snapshotter} rewrites the
+ * data files in the background, and the old segment is deleted once the snapshot is durable.
+ * Until then both segments are replayed on startup.
+ * <p>
+ * Entries describe store-level state ({@code put}/{@code remove}/{@code rename}),
+ * so replaying an entry that is already reflected in the snapshot is harmless.
+ */
+public class Journal implements Closeable {
+    private static final long COMMIT_INTERVAL_MS = 20;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 4L * 1024 * 1024;
+
+    public record Entry(String store, String op, JsonNode data) {
+        public <T> T dataAs(Class<T> type) throws JsonProcessingException {
+            return JsonUtils.mapper().treeToValue(data, type);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryHandler {
+        void apply(Entry entry) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Snapshotter {
+        /**
+         * Captures the current state and writes it out, completing with {@code true}
+         * once every data file is durable. Called on the committer thread right after a
+         * rotation; the state must be captured after that, on the thread that mutates the
+         * controllers, so it covers every entry of the rotated segment.
+         */
+        CompletableFuture<Boolean> writeSnapshot();
+    }
+
+    private final Path path;
+    private final Path oldSegmentPath;
+    private final long compactionThreshold;
+    private final Object bufferLock = new Object();
+    private final Object fileLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long journalSize;
+    private FileChannel channel;
+    private ScheduledExecutorService committer;
+    private Snapshotter snapshotter;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    public Journal(String filePath) {
+        this(filePath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public Journal(String filePath, long compactionThreshold) {
+        this.path = Path.of(filePath);
+        this.oldSegmentPath = Path.of(filePath + ".old");
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public void setSnapshotter(Snapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    /**
+     * Replays every complete entry of the journal, oldest segment first. A torn last line
+     * left behind by a crash ends the replay of a segment; entries the handler cannot
+     * apply are skipped.
+     *
+     * @return the number of entries applied
+     */
+    public int replay(EntryHandler handler) throws IOException {
+        int applied = replaySegment(oldSegmentPath, handler) + replaySegment(path, handler);
+        System.out.println("Replayed " + applied + " journal entries.");
+        return applied;
+    }
+
+    private int replaySegment(Path segment, EntryHandler handler) throws IOException {
+        if (!Files.exists(segment)) {
+            return 0;
+        }
+
+        int applied = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = JsonUtils.mapper().readTree(line);
+                } catch (JsonProcessingException e) {
+                    System.out.println("Journal " + segment.getFileName() + " ends with an incomplete entry at line " + lineNumber + ", ignoring the rest.");
+                    break;
+                }
+                try {
+                    handler.apply(new Entry(node.path("store").asText(), node.path("op").asText(), node.get("data")));
+                    applied++;
+                } catch (IOException e) {
+                    System.out.println("Skipping journal entry at line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return applied;
+    }
+
+    public void open() throws IOException {
+        channel = openSegment();
+        journalSize = channel.size();
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-committer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL_MS, COMMIT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers one mutation for the next group commit. Compacts the journal first if it
+     * has grown past the threshold.
+     */
+    public void append(String store, String op, Object data) {
+        if (channel == null) {
+            return;
+        }
+
+        ObjectNode node = JsonUtils.mapper().createObjectNode();
+        node.put("store", store);
+        node.put("op", op);
+        node.set("data", JsonUtils.mapper().valueToTree(data));
+        byte[] line = (node.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+
+        boolean compactNow;
+        synchronized (bufferLock) {
+            pending.writeBytes(line);
+            journalSize += line.length;
+            compactNow = journalSize >= compactionThreshold && snapshotter != null && !compacting.get();
+        }
+        if (compactNow) {
+            compact();
+        }
+    }
+
+    /**
+     * Folds the journal into a fresh snapshot. The rotation runs on the committer thread,
+     * so the caller never waits for its fsync or segment copy.
+     */
+    public void compact() {
+        if (snapshotter == null || committer == null || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        committer.execute(this::rotateAndSnapshot);
+    }
+
+    private void rotateAndSnapshot() {
+        try {
+            rotate();
+        } catch (IOException e) {
+            System.out.println("Failed to rotate journal: " + e.getMessage());
+            compacting.set(false);
+            return;
+        }
+
+        snapshotter.writeSnapshot().whenComplete((saved, error) -> {
+            try {
+                if (error == null && Boolean.TRUE.equals(saved)) {
+                    Files.deleteIfExists(oldSegmentPath);
+                    System.out.println("Journal compacted into snapshot.");
+                } else {
+                    System.out.println("Snapshot failed, keeping the rotated journal segment.");
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to delete rotated journal segment: " + e.getMessage());
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Moves everything journaled so far into the old segment and starts an empty one.
+     * If an earlier snapshot failed, the current segment is appended to the old one.
+     */
+    private void rotate() throws IOException {
+        synchronized (fileLock) {
+            commit();
+            channel.close();
+            if (Files.exists(oldSegmentPath)) {
+                try (FileChannel oldSegment = FileChannel.open(oldSegmentPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                     FileChannel currentSegment = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long position = 0;
+                    while (position < currentSegment.size()) {
+                        position += currentSegment.transferTo(position, currentSegment.size() - position, oldSegment);
+                    }
+                    oldSegment.force(true);
+                }
+                Files.delete(path);
+            } else {
+                Files.move(path, oldSegmentPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+            channel = openSegment();
+            synchronized (bufferLock) {
+                journalSize = pending.size();
+            }
+        }
+    }
+
+    private FileChannel openSegment() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes and forces everything appended so far.
+     */
+    public void commit() {
+        synchronized (fileLock) {
+            byte[] batch;
+            synchronized (bufferLock) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                System.out.println("Failed to write journal: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+}
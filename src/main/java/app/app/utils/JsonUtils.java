@@ -1,24 +1,170 @@
 package app.utils;
 
+import app.models.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class JsonUtils {
+    /**
+     * File extension that selects the compact binary snapshot format in {@link #writeDataFile}.
+     */
+    public static final String BINARY_EXTENSION = ".bin";
+
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectWriter prettyWriter;
 
     static {
         mapper.registerModule(new JavaTimeModule());
+        prettyWriter = mapper.writerWithDefaultPrettyPrinter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @FunctionalInterface
+    interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    static ObjectMapper mapper() {
+        return mapper;
     }
 
     public static <T> List<T> readJsonFile(String filePath, Class<T[]> clazz) throws IOException {
         return List.of(mapper.readValue(new File(filePath), clazz));
     }
 
-    public static <T> void writeJsonFile(String filePath, List<T> data) throws IOException {
-        mapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), data);
+    /**
+     * Reads a JSON array one element at a time and hands each element to {@code consumer},
+     * so the whole array is never materialized in memory. Elements read before a parse error
+     * have already been handed over; see {@link #readDataFile} for an all-or-nothing read.
+     */
+    public static <T> void streamJsonFile(String filePath, Class<T> clazz, Consumer<? super T> consumer) throws IOException {
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            streamJson(in, filePath, clazz, consumer);
+        }
+    }
+
+    /**
+     * Streams the records of a data file written either as JSON or in the binary snapshot
+     * format; the format is detected from the file header.
+     */
+    public static <T> void streamDataFile(String filePath, Class<T> clazz, Consumer<? super T> consumer) throws IOException {
+        if (clazz == Task.class && MappedTaskSnapshot.isMappable(Path.of(filePath))) {
+            // Task snapshots are mapped and their text is decoded on demand.
+            MappedTaskSnapshot.read(Path.of(filePath), task -> consumer.accept(clazz.cast(task)));
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(filePath)), 64 * 1024)) {
+            in.mark(Integer.BYTES);
+            int header;
+            try {
+                header = new DataInputStream(in).readInt();
+            } catch (IOException e) {
+                header = 0;
+            }
+            in.reset();
+            if (header == BinarySnapshotCodec.MAGIC) {
+                BinarySnapshotCodec.read(in, clazz, consumer);
+            } else {
+                streamJson(in, filePath, clazz, consumer);
+            }
+        }
+    }
+
+    /**
+     * Reads every record of a data file into a new list. The caller's state is untouched until
+     * this returns, so a file that fails to parse part-way through loads nothing.
+     */
+    public static <T> List<T> readDataFile(String filePath, Class<T> clazz) throws IOException {
+        List<T> records = new ArrayList<>();
+        streamDataFile(filePath, clazz, records::add);
+        return records;
+    }
+
+    /**
+     * Returns the title of a loaded task. Tasks opened from a binary snapshot keep their text
+     * in the mapped file until it is first used; this reads it from there without keeping it.
+     */
+    public static String titleOf(Task task) {
+        return MappedTaskSnapshot.titleOf(task);
+    }
+
+    private static <T> void streamJson(InputStream in, String filePath, Class<T> clazz, Consumer<? super T> consumer) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array in " + filePath);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(mapper.readValue(parser, clazz));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected token " + parser.currentToken() + " in " + filePath);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code data} as a JSON array. The file is replaced atomically, so a failure
+     * mid-write leaves the previous contents intact.
+     *
+     * @return the number of bytes written
+     */
+    public static <T> long writeJsonFile(String filePath, List<T> data) throws IOException {
+        return writeAtomically(Path.of(filePath), out -> prettyWriter.writeValue(out, data));
+    }
+
+    /**
+     * Writes {@code data} atomically, in the binary snapshot format if {@code filePath} ends
+     * with {@link #BINARY_EXTENSION} and as JSON otherwise.
+     *
+     * @return the number of bytes written
+     */
+    public static <T> long writeDataFile(String filePath, List<T> data, Class<T> clazz) throws IOException {
+        if (filePath.endsWith(BINARY_EXTENSION)) {
+            return writeAtomically(Path.of(filePath), out -> BinarySnapshotCodec.write(out, data, clazz));
+        }
+        return writeJsonFile(filePath, data);
+    }
+
+    /**
+     * Writes to a temporary file next to {@code target}, forces it to disk and renames it
+     * over {@code target} in one atomic step.
+     */
+    static long writeAtomically(Path target, StreamWriter body) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temp = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString(), ".tmp");
+        try {
+            long bytesWritten;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+                body.write(out);
+                out.flush();
+                channel.force(true);
+                bytesWritten = channel.size();
+            }
+            Files.move(temp, absoluteTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return bytesWritten;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
     }
 }
@@ -0,0 +1,312 @@
+package app.utils;
+
+import app.models.Category;
+import app.models.Priority;
+import app.models.Task;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Opens a binary task file in the row layout of {@link BinarySnapshotCodec} through a
+ * read-only memory mapping.
+ * <p>
+ * Ids, deadlines, statuses, categories and priorities are decoded up front because the
+ * controller indexes need them. Titles and descriptions stay in the mapped file until a
+ * task's title or description is first read or changed. Each lazy task drops its reference
+ * to the mapping once its text is loaded, so the mapping is released as soon as no task
+ * still needs it. On file systems that are not POSIX the text is loaded right away instead;
+ * see {@link #read(Path, Consumer)}.
+ */
+final class MappedTaskSnapshot {
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final MemorySegment segment;
+
+    private MappedTaskSnapshot(MemorySegment segment) {
+        this.segment = segment;
+    }
+
+    static boolean isMappable(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(6);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            return !header.hasRemaining()
+                    && header.getInt(0) == BinarySnapshotCodec.MAGIC
+                    && (header.get(4) == BinarySnapshotCodec.VERSION || header.get(4) == BinarySnapshotCodec.LEGACY_TASK_VERSION)
+                    && header.get(5) == BinarySnapshotCodec.TYPE_TASK;
+        }
+    }
+
+    /**
+     * Hands each task in the file at {@code path} to {@code consumer}. Where the file system is
+     * not POSIX, as on Windows, a file cannot be replaced while it is mapped, so the text is
+     * decoded up front and the mapping closed before this returns; otherwise the next snapshot
+     * could not be written over this one.
+     */
+    static void read(Path path, Consumer<? super Task> consumer) throws IOException {
+        read(path, path.getFileSystem().supportedFileAttributeViews().contains("posix"), consumer);
+    }
+
+    static void read(Path path, boolean keepMapped, Consumer<? super Task> consumer) throws IOException {
+        // An automatic arena unmaps the file once the segment is no longer reachable;
+        // the mapping stays valid after the channel is closed.
+        Arena arena = keepMapped ? Arena.ofAuto() : Arena.ofConfined();
+        try {
+            MemorySegment mapped;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            }
+            decode(path, mapped, keepMapped, consumer);
+        } finally {
+            if (!keepMapped) {
+                arena.close();
+            }
+        }
+    }
+
+    private static void decode(Path path, MemorySegment mapped, boolean keepMapped, Consumer<? super Task> consumer)
+            throws IOException {
+        MappedTaskSnapshot snapshot = new MappedTaskSnapshot(mapped);
+        Cursor in = new Cursor(mapped, Integer.BYTES);
+        boolean textIds = in.readByte() == BinarySnapshotCodec.LEGACY_TASK_VERSION;
+        in.readByte();
+        int count = in.readInt();
+        // One Category and Priority per dictionary entry, shared by the tasks that refer to it.
+        List<Category> categories = readDictionary(in).stream().map(Category::new).toList();
+        List<Priority> priorities = readDictionary(in).stream().map(Priority::new).toList();
+        Task.Status[] statuses = Task.Status.values();
+
+        // Ids follow the fixed-width rows, so they are read through a second cursor.
+        Cursor ids = new Cursor(mapped, in.position + (long) BinarySnapshotCodec.TASK_ROW_BYTES * count);
+
+        for (int i = 0; i < count; i++) {
+            long textOffset = in.readLong();
+            int epochDay = in.readInt();
+            int status = Byte.toUnsignedInt(in.readByte());
+            int categoryId = in.readInt();
+            Priority priority = priorities.get(in.readInt());
+            if (textOffset < 0 || textOffset >= mapped.byteSize()) {
+                throw new IOException("Corrupt task snapshot: text offset out of range in " + path);
+            }
+
+            Category category = categoryId > 0 ? categories.get(categoryId - 1) : null;
+            LocalDate deadline = epochDay != BinarySnapshotCodec.NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+            UUID id = textIds ? BinarySnapshotCodec.parseId(ids.readString()) : new UUID(ids.readLong(), ids.readLong());
+            LazyTask task = new LazyTask(snapshot, textOffset, id, category, priority, deadline,
+                    status != BinarySnapshotCodec.NO_STATUS ? statuses[status] : null);
+            if (!keepMapped) {
+                task.materialize();
+            }
+            consumer.accept(task);
+        }
+    }
+
+    /**
+     * Returns the encoded title and description of a lazy task whose text was never loaded,
+     * as a slice of the mapping, or {@code null} if {@code task} holds its text itself.
+     * The bytes are in the layout the codec writes, so they can be copied as they are.
+     */
+    static MemorySegment rawText(Task task) {
+        if (task instanceof LazyTask lazy) {
+            synchronized (lazy) {
+                if (!lazy.loaded) {
+                    return lazy.snapshot.textSlice(lazy.textOffset);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the title of {@code task}, reading it from the mapping without loading it into a
+     * lazy task.
+     */
+    static String titleOf(Task task) {
+        if (task instanceof LazyTask lazy) {
+            synchronized (lazy) {
+                if (!lazy.loaded) {
+                    return lazy.snapshot.readText(lazy.textOffset)[0];
+                }
+            }
+        }
+        return task.getTitle();
+    }
+
+    private MemorySegment textSlice(long offset) {
+        Cursor in = new Cursor(segment, offset);
+        try {
+            in.skipString();
+            in.skipString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt task snapshot text at offset " + offset, e);
+        }
+        return segment.asSlice(offset, in.position - offset);
+    }
+
+    private String[] readText(long offset) {
+        // A private cursor keeps concurrent readers from disturbing each other.
+        Cursor in = new Cursor(segment, offset);
+        try {
+            return new String[] { in.readString(), in.readString() };
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt task snapshot text at offset " + offset, e);
+        }
+    }
+
+    private static List<String> readDictionary(Cursor in) throws IOException {
+        int size = in.readVarInt();
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(in.readString());
+        }
+        return names;
+    }
+
+    /**
+     * A read position in the mapping. Positions are longs, so files past 2 GB can be read.
+     */
+    private static final class Cursor {
+        private final MemorySegment segment;
+        private long position;
+
+        Cursor(MemorySegment segment, long position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        byte readByte() throws IOException {
+            require(Byte.BYTES);
+            return segment.get(ValueLayout.JAVA_BYTE, position++);
+        }
+
+        int readInt() throws IOException {
+            require(Integer.BYTES);
+            int value = segment.get(INT, position);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        long readLong() throws IOException {
+            require(Long.BYTES);
+            long value = segment.get(LONG, position);
+            position += Long.BYTES;
+            return value;
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            require(length);
+            byte[] bytes = new byte[length];
+            MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, position, bytes, 0, length);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipString() throws IOException {
+            int length = readVarInt() - 1;
+            if (length > 0) {
+                require(length);
+                position += length;
+            }
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = Byte.toUnsignedInt(readByte());
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new EOFException("Malformed length in task snapshot");
+        }
+
+        private void require(long bytes) throws IOException {
+            if (bytes > segment.byteSize() - position) {
+                throw new EOFException("Truncated task snapshot");
+            }
+        }
+    }
+
+    /**
+     * A task whose title and description are decoded from the snapshot on first use.
+     */
+    private static final class LazyTask extends Task {
+        // Cleared once the text is loaded, so the task no longer keeps the mapping alive.
+        private MappedTaskSnapshot snapshot;
+        private final long textOffset;
+        private boolean loaded;
+
+        LazyTask(MappedTaskSnapshot snapshot, long textOffset, UUID id, Category category, Priority priority,
+                 LocalDate deadline, Status status) {
+            super(id, null, null, category, priority, deadline, status);
+            this.snapshot = snapshot;
+            this.textOffset = textOffset;
+        }
+
+        private synchronized void materialize() {
+            if (!loaded) {
+                String[] text = snapshot.readText(textOffset);
+                super.setTitle(text[0]);
+                super.setDescription(text[1]);
+                loaded = true;
+                snapshot = null;
+            }
+        }
+
+        // A copy of an unloaded task shares the mapped text instead of decoding it.
+        @Override
+        public synchronized Task copy() {
+            if (loaded) {
+                return super.copy();
+            }
+            return new LazyTask(snapshot, textOffset, getId(), getCategory(), getPriorityRef(), getDeadline(), getStatus());
+        }
+
+        @Override
+        public String getTitle() {
+            materialize();
+            return super.getTitle();
+        }
+
+        @Override
+        public void setTitle(String title) {
+            materialize();
+            super.setTitle(title);
+        }
+
+        @Override
+        public String getDescription() {
+            materialize();
+            return super.getDescription();
+        }
+
+        @Override
+        public void setDescription(String description) {
+            materialize();
+            super.setDescription(description);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package app.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes data file snapshots on a background thread.
+ * <p>
+ * Callers hand over a list of copies that later edits do not touch, so the UI thread only
+ * pays for the copy and the writer never sees a half-applied change.
+ * Saves of the same file that pile up while an earlier one is still queued are
+ * coalesced: only the newest data is written and all callers share its result.
+ */
+public class SnapshotWriter implements Closeable {
+    private record PendingSave(List<?> data, Class<?> type, CompletableFuture<Boolean> result) {}
+
+    private final ExecutorService executor;
+    private final Map<String, PendingSave> pendingSaves = new ConcurrentHashMap<>();
+
+    public SnapshotWriter() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules {@code data} to be written to {@code filePath}, in the format chosen by
+     * {@link JsonUtils#writeDataFile}.
+     *
+     * @return a future completed with {@code true} once the file is durably replaced,
+     *         or {@code false} if the write failed
+     */
+    public <T> CompletableFuture<Boolean> save(String filePath, List<T> data, Class<T> type) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        PendingSave queued = pendingSaves.merge(filePath, new PendingSave(data, type, result),
+                (previous, latest) -> new PendingSave(latest.data(), latest.type(), previous.result()));
+        if (queued.result() == result) {
+            executor.execute(() -> write(filePath));
+        }
+        return queued.result();
+    }
+
+    private void write(String filePath) {
+        PendingSave save = pendingSaves.remove(filePath);
+        if (save == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            long bytesWritten = writeDataFile(filePath, save);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("Saved " + filePath + ": " + bytesWritten + " bytes in " + elapsedMillis + " ms.");
+            save.result().complete(true);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Failed to save " + filePath + ": " + e.getMessage());
+            save.result().complete(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> long writeDataFile(String filePath, PendingSave save) throws IOException {
+        return JsonUtils.writeDataFile(filePath, (List<T>) save.data(), (Class<T>) save.type());
+    }
+
+    /**
+     * Waits for queued saves to finish and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.out.println("Timed out waiting for snapshot writes to finish.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}